@@ -0,0 +1,26 @@
+package config;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.lookup.AbstractLookup;
+import org.apache.logging.log4j.core.lookup.StrLookup;
+
+/**
+ * Log4j lookup resolving ${config:key} from ConfigManager, so log levels and
+ * file paths follow config.properties and -D overrides
+ * 
+ * @author Brian LaTorraca
+ */
+@Plugin(name = "config", category = StrLookup.CATEGORY)
+public class ConfigLookup extends AbstractLookup {
+    
+    @Override
+    public String lookup(LogEvent event, String key) {
+        try {
+            return ConfigManager.getInstance().getProperty(key);
+        } catch (RuntimeException e) {
+            // No config.properties on the classpath; the default of the lookup applies
+            return null;
+        }
+    }
+}
@@ -2,7 +2,11 @@ package config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Singleton configuration manager for test properties
@@ -66,6 +70,15 @@ public class ConfigManager {
         return properties.getProperty(key);
     }
     
+    /**
+     * Get keys defined in the config file
+     * 
+     * @return Property keys
+     */
+    public Set<String> getPropertyNames() {
+        return properties.stringPropertyNames();
+    }
+    
     /**
      * Get browser name
      * 
@@ -95,6 +108,278 @@ public class ConfigManager {
         return Boolean.parseBoolean(maximize);
     }
     
+    /**
+     * Get browsers every test is run on in a single suite run
+     * 
+     * @return Browser names, empty when the matrix is disabled
+     */
+    public List<String> getBrowserMatrix() {
+        return getListProperty("browser.matrix");
+    }
+    
+    /**
+     * Check if tests share one browser process, each in its own browser context (Chrome/Edge only)
+     * 
+     * @return true if browser.isolation is context
+     */
+    public boolean isContextIsolation() {
+        return "context".equalsIgnoreCase(getProperty("browser.isolation"));
+    }
+    
+    /**
+     * Get named browser launch profile
+     * 
+     * @return Profile name (default or ci-throughput)
+     */
+    public String getBrowserProfile() {
+        String profile = getProperty("browser.profile");
+        return profile != null ? profile.toLowerCase() : "default";
+    }
+    
+    /**
+     * Check if the ci-throughput browser profile is active
+     * 
+     * @return true if ci-throughput profile selected
+     */
+    public boolean isCiThroughputProfile() {
+        return "ci-throughput".equals(getBrowserProfile());
+    }
+    
+    /**
+     * Check if local sessions start on a copy of a pre-seeded profile template
+     * 
+     * @return true if browser.profile.template is enabled
+     */
+    public boolean isProfileTemplateEnabled() {
+        return Boolean.parseBoolean(getProperty("browser.profile.template"));
+    }
+    
+    /**
+     * Get fixed viewport size used instead of maximizing
+     * 
+     * @return Array of width and height
+     */
+    public int[] getViewportSize() {
+        String viewport = getProperty("viewport.size");
+        String[] size = (viewport != null ? viewport : "1366x768").toLowerCase().split("x");
+        return new int[]{Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim())};
+    }
+    
+    /**
+     * Check if browser/driver process monitoring is enabled
+     * 
+     * @return true if processes are sampled per session
+     */
+    public boolean isBrowserMonitorEnabled() {
+        String enabled = getProperty("browser.monitor.enabled");
+        return enabled == null || Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Get interval between browser process samples
+     * 
+     * @return Interval in milliseconds
+     */
+    public long getBrowserMonitorIntervalMillis() {
+        String interval = getProperty("browser.monitor.interval.ms");
+        return Long.parseLong(interval != null ? interval : "2000");
+    }
+    
+    /**
+     * Get memory budget of one browser session (driver, browser and child processes)
+     * 
+     * @return Budget in MB, 0 for no limit
+     */
+    public long getBrowserMemoryBudgetMb() {
+        String budget = getProperty("browser.memory.budget.mb");
+        return Long.parseLong(budget != null ? budget : "0");
+    }
+    
+    /**
+     * Check if leftover driver and browser processes are killed by the process reaper
+     * 
+     * @return true if reaper enabled
+     */
+    public boolean isProcessReaperEnabled() {
+        String enabled = getProperty("reaper.enabled");
+        return enabled == null || Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Get interval between process reaper sweeps for orphaned sessions
+     * 
+     * @return Interval in milliseconds
+     */
+    public long getReaperSweepIntervalMillis() {
+        String interval = getProperty("reaper.sweep.interval.ms");
+        return Long.parseLong(interval != null ? interval : "60000");
+    }
+    
+    /**
+     * Check if sessions are created on a Selenium Grid / standalone server
+     * 
+     * @return true if grid enabled
+     */
+    public boolean isGridEnabled() {
+        return Boolean.parseBoolean(getProperty("grid.enabled"));
+    }
+    
+    /**
+     * Check if a Selenium standalone server is started inside the test JVM
+     * 
+     * @return true if local grid enabled
+     */
+    public boolean isLocalGridEnabled() {
+        return Boolean.parseBoolean(getProperty("grid.local"));
+    }
+    
+    /**
+     * Get session slots of the local Selenium standalone server
+     * 
+     * @return Slot count, defaults to available processors
+     */
+    public int getLocalGridMaxSessions() {
+        String sessions = getProperty("grid.local.max.sessions");
+        return sessions != null ? Integer.parseInt(sessions) : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Get time to wait for the local Selenium standalone server to become ready
+     * 
+     * @return Timeout in seconds
+     */
+    public int getLocalGridStartupTimeout() {
+        String timeout = getProperty("grid.local.startup.timeout");
+        return Integer.parseInt(timeout != null ? timeout : "60");
+    }
+    
+    /**
+     * Get how long a new session request may wait in the local standalone's queue for a free slot
+     * 
+     * @return Timeout in seconds
+     */
+    public int getLocalGridSessionRequestTimeout() {
+        String timeout = getProperty("grid.local.session.request.timeout");
+        return Integer.parseInt(timeout != null ? timeout : "300");
+    }
+    
+    /**
+     * Check if local Chrome/Edge sessions attach to a running browser daemon when one is found
+     * 
+     * @return true if browser.daemon.enabled
+     */
+    public boolean isBrowserDaemonEnabled() {
+        return Boolean.parseBoolean(getProperty("browser.daemon.enabled"));
+    }
+    
+    /**
+     * Get the port the browser daemon listens on (localhost only)
+     * 
+     * @return Port number
+     */
+    public int getBrowserDaemonPort() {
+        String port = getProperty("browser.daemon.port");
+        return Integer.parseInt(port != null ? port : "4455");
+    }
+    
+    /**
+     * Get the base URL of the browser daemon
+     * 
+     * @return Daemon URL
+     */
+    public String getBrowserDaemonUrl() {
+        return "http://127.0.0.1:" + getBrowserDaemonPort();
+    }
+    
+    /**
+     * Get browsers the daemon starts before the first lease
+     * 
+     * @return Browser names
+     */
+    public List<String> getBrowserDaemonBrowsers() {
+        List<String> browsers = getListProperty("browser.daemon.browsers");
+        return browsers.isEmpty() ? Collections.singletonList("chrome") : browsers;
+    }
+    
+    /**
+     * Get minutes after which an unreleased daemon lease is reclaimed, e.g. from a killed Maven run
+     * 
+     * @return Lease timeout in minutes
+     */
+    public int getBrowserDaemonLeaseTimeoutMinutes() {
+        String timeout = getProperty("browser.daemon.lease.timeout.minutes");
+        return Integer.parseInt(timeout != null ? timeout : "30");
+    }
+    
+    /**
+     * Get Selenium Grid URL
+     * 
+     * @return Grid URL
+     */
+    public String getGridHubUrl() {
+        String url = getProperty("grid.hub.url");
+        return url != null ? url : "http://localhost:4444/wd/hub";
+    }
+    
+    /**
+     * Get connection timeout for grid HTTP requests
+     * 
+     * @return Timeout in seconds
+     */
+    public int getGridConnectTimeout() {
+        String timeout = getProperty("grid.connect.timeout");
+        return Integer.parseInt(timeout != null ? timeout : "10");
+    }
+    
+    /**
+     * Get read timeout for grid HTTP requests; covers waiting in the grid's session queue
+     * 
+     * @return Timeout in seconds
+     */
+    public int getGridReadTimeout() {
+        String timeout = getProperty("grid.read.timeout");
+        return Integer.parseInt(timeout != null ? timeout : "300");
+    }
+    
+    /**
+     * Get HTTP version for grid requests
+     * 
+     * @return HTTP_2 or HTTP_1_1
+     */
+    public String getGridHttpVersion() {
+        String version = getProperty("grid.http.version");
+        return version != null ? version.toUpperCase() : "HTTP_2";
+    }
+    
+    /**
+     * Get number of retries when a remote session cannot be created
+     * 
+     * @return Retry count
+     */
+    public int getGridSessionRetries() {
+        String retries = getProperty("grid.session.retries");
+        return Integer.parseInt(retries != null ? retries : "3");
+    }
+    
+    /**
+     * Get base delay between remote session retries, multiplied by the attempt number
+     * 
+     * @return Delay in milliseconds
+     */
+    public long getGridSessionRetryBackoffMillis() {
+        String backoff = getProperty("grid.session.retry.backoff.ms");
+        return Long.parseLong(backoff != null ? backoff : "2000");
+    }
+    
+    /**
+     * Check if page object clicks and typing use the fused actionability script
+     * 
+     * @return true if fused actions enabled
+     */
+    public boolean isFusedActions() {
+        return Boolean.parseBoolean(getProperty("fused.actions"));
+    }
+    
     /**
      * Get implicit wait timeout
      * 
@@ -125,6 +410,56 @@ public class ConfigManager {
         return Integer.parseInt(timeout != null ? timeout : "30");
     }
     
+    /**
+     * Get WebDriver page load strategy
+     * 
+     * @return normal, eager or none
+     */
+    public String getPageLoadStrategy() {
+        String strategy = getProperty("page.load.strategy");
+        return strategy != null ? strategy.toLowerCase() : "normal";
+    }
+    
+    /**
+     * Get quiet period without network or DOM activity after which a page counts as ready
+     * 
+     * @return Quiet period in milliseconds
+     */
+    public long getReadinessQuietMillis() {
+        String quiet = getProperty("readiness.quiet.ms");
+        return Long.parseLong(quiet != null ? quiet : "500");
+    }
+    
+    /**
+     * Get how long the network must be idle before readiness stops waiting for the DOM to be quiet
+     * 
+     * @return Maximum DOM quiet wait in milliseconds
+     */
+    public long getReadinessDomQuietMaxMillis() {
+        String max = getProperty("readiness.dom.quiet.max.ms");
+        return Long.parseLong(max != null ? max : "2000");
+    }
+    
+    /**
+     * Get quiet period after the last fetch/XHR request during which no new request may start
+     * 
+     * @return Quiet period in milliseconds
+     */
+    public long getAjaxQuietMillis() {
+        String quiet = getProperty("ajax.quiet.ms");
+        return Long.parseLong(quiet != null ? quiet : "100");
+    }
+    
+    /**
+     * Check if AJAX waits should track requests from document start in every session
+     * 
+     * @return true if AJAX tracking enabled
+     */
+    public boolean isAjaxTrackingEnabled() {
+        String tracking = getProperty("ajax.tracking.enabled");
+        return Boolean.parseBoolean(tracking);
+    }
+    
     /**
      * Get script timeout
      * 
@@ -220,4 +555,362 @@ public class ConfigManager {
         String count = getProperty("retry.count");
         return Integer.parseInt(count != null ? count : "0");
     }
+    
+    /**
+     * Get path of the persisted failed test index used by the rerun-failed profile
+     * 
+     * @return File path
+     */
+    public String getRerunIndexPath() {
+        String path = getProperty("rerun.index.path");
+        return path != null ? path : "test-output/rerun/failed-tests.json";
+    }
+    
+    /**
+     * Check if test start/finish events are appended to the results journal
+     * 
+     * @return true if journal.enabled
+     */
+    public boolean isJournalEnabled() {
+        String enabled = getProperty("journal.enabled");
+        return Boolean.parseBoolean(enabled != null ? enabled : "true");
+    }
+    
+    /**
+     * Get directory holding one results journal file per run
+     * 
+     * @return Directory path
+     */
+    public String getJournalDir() {
+        String dir = getProperty("journal.dir");
+        return dir != null ? dir : "test-output/journal";
+    }
+    
+    /**
+     * Get interval at which journal writes are synced to disk
+     * 
+     * @return Interval in milliseconds
+     */
+    public long getJournalSyncIntervalMillis() {
+        String interval = getProperty("journal.sync.interval.ms");
+        return Long.parseLong(interval != null ? interval : "1000");
+    }
+    
+    /**
+     * Check if finished tests are recorded in the results history database
+     * 
+     * @return true if history.enabled
+     */
+    public boolean isHistoryEnabled() {
+        String enabled = getProperty("history.enabled");
+        return Boolean.parseBoolean(enabled != null ? enabled : "true");
+    }
+    
+    /**
+     * Get path of the results history database, without the H2 file extension
+     * 
+     * @return Database path
+     */
+    public String getHistoryDbPath() {
+        String path = getProperty("history.db.path");
+        return path != null ? path : "test-output/history/results";
+    }
+    
+    /**
+     * Get number of most recent results per test used for flakiness and duration statistics
+     * 
+     * @return Results per test
+     */
+    public int getHistoryWindowRuns() {
+        String runs = getProperty("history.window.runs");
+        return Integer.parseInt(runs != null ? runs : "20");
+    }
+    
+    /**
+     * Check if flaky tests are moved out of the suite into the quarantine lane
+     * 
+     * @return true if quarantine.enabled
+     */
+    public boolean isQuarantineEnabled() {
+        String enabled = getProperty("quarantine.enabled");
+        return Boolean.parseBoolean(enabled != null ? enabled : "false");
+    }
+    
+    /**
+     * Get flakiness rate from which a test is quarantined
+     * 
+     * @return Share of flipped consecutive results, 0 to 1
+     */
+    public double getQuarantineFlakinessThreshold() {
+        String threshold = getProperty("quarantine.flakiness.threshold");
+        return Double.parseDouble(threshold != null ? threshold : "0.2");
+    }
+    
+    /**
+     * Get number of recorded results a test needs before it can be quarantined
+     * 
+     * @return Minimum results
+     */
+    public int getQuarantineMinRuns() {
+        String runs = getProperty("quarantine.min.runs");
+        return Integer.parseInt(runs != null ? runs : "5");
+    }
+    
+    /**
+     * Get number of consecutive passes after which a quarantined test returns to the suite
+     * 
+     * @return Consecutive passes
+     */
+    public int getQuarantineStableRuns() {
+        String runs = getProperty("quarantine.stable.runs");
+        return Integer.parseInt(runs != null ? runs : "10");
+    }
+    
+    /**
+     * Get number of parallel threads of the quarantine lane
+     * 
+     * @return Thread count
+     */
+    public int getQuarantineThreads() {
+        String threads = getProperty("quarantine.threads");
+        return Integer.parseInt(threads != null ? threads : "1");
+    }
+    
+    /**
+     * Get directory of the quarantine lane suite, log and reports
+     * 
+     * @return Directory path
+     */
+    public String getQuarantineDir() {
+        String dir = getProperty("quarantine.dir");
+        return dir != null ? dir : "test-output/quarantine";
+    }
+    
+    /**
+     * Get time the main suite waits for the quarantine lane at its end before leaving it running
+     * 
+     * @return Wait in seconds
+     */
+    public int getQuarantineWaitSeconds() {
+        String wait = getProperty("quarantine.wait.seconds");
+        return Integer.parseInt(wait != null ? wait : "30");
+    }
+    
+    /**
+     * Get path of the CSV collecting time-to-first-test of each run
+     * 
+     * @return File path
+     */
+    public String getStartupReportPath() {
+        String path = getProperty("startup.report.path");
+        return path != null ? path : "test-output/startup/startup-times.csv";
+    }
+    
+    /**
+     * Check if impact analysis selects the tests of this run (set by -Pimpact)
+     * 
+     * @return true if impact analysis enabled
+     */
+    public boolean isImpactEnabled() {
+        return Boolean.parseBoolean(getProperty("impact.enabled"));
+    }
+    
+    /**
+     * Check if impact analysis should only list the selected tests
+     * 
+     * @return true if dry run enabled
+     */
+    public boolean isImpactDryRun() {
+        String dryRun = getProperty("impact.dry.run");
+        return Boolean.parseBoolean(dryRun);
+    }
+    
+    /**
+     * Get maximum number of concurrently open browser sessions
+     * 
+     * @return Session count, the local grid's slots when it runs, otherwise defaults to thread count
+     */
+    public int getMaxBrowserSessions() {
+        if (isLocalGridEnabled()) {
+            return getLocalGridMaxSessions();
+        }
+        String sessions = getProperty("max.browser.sessions");
+        return sessions != null ? Integer.parseInt(sessions) : getThreadCount();
+    }
+    
+    /**
+     * Get how long a test waits for a free browser session slot before failing
+     * 
+     * @return Timeout in seconds, defaults to 20 page load timeouts
+     */
+    public int getSessionSlotTimeout() {
+        String timeout = getProperty("session.slot.timeout");
+        return timeout != null ? Integer.parseInt(timeout) : getPageLoadTimeout() * 20;
+    }
+    
+    /**
+     * Check if browser slots are adjusted to machine capacity during the run
+     * 
+     * @return true if concurrency.mode is adaptive
+     */
+    public boolean isAdaptiveConcurrency() {
+        return "adaptive".equalsIgnoreCase(getProperty("concurrency.mode"));
+    }
+    
+    /**
+     * Get lower bound of adaptive browser slots
+     * 
+     * @return Minimum slots
+     */
+    public int getConcurrencyMin() {
+        String min = getProperty("concurrency.min");
+        return Integer.parseInt(min != null ? min : "2");
+    }
+    
+    /**
+     * Get upper bound of adaptive browser slots
+     * 
+     * @return Maximum slots, defaults to available processors
+     */
+    public int getConcurrencyMax() {
+        String max = getProperty("concurrency.max");
+        return max != null ? Integer.parseInt(max) : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Get number of adaptive browser slots at start
+     * 
+     * @return Initial slots, defaults to the minimum
+     */
+    public int getConcurrencyInitial() {
+        String initial = getProperty("concurrency.initial");
+        return initial != null ? Integer.parseInt(initial) : getConcurrencyMin();
+    }
+    
+    /**
+     * Get 1-minute load average per core above which slots are reduced
+     * 
+     * @return Load per core
+     */
+    public double getConcurrencyTargetLoad() {
+        String load = getProperty("concurrency.target.load");
+        return Double.parseDouble(load != null ? load : "0.85");
+    }
+    
+    /**
+     * Get available memory below which slots are reduced
+     * 
+     * @return Memory in MB
+     */
+    public long getConcurrencyMinFreeMemoryMb() {
+        String memory = getProperty("concurrency.min.free.memory.mb");
+        return Long.parseLong(memory != null ? memory : "1024");
+    }
+    
+    /**
+     * Get p95 WebDriver command latency above which slots are reduced
+     * 
+     * @return Latency in milliseconds
+     */
+    public long getConcurrencyTargetLatencyMillis() {
+        String latency = getProperty("concurrency.target.latency.ms");
+        return Long.parseLong(latency != null ? latency : "2000");
+    }
+    
+    /**
+     * Get interval between adaptive concurrency adjustments
+     * 
+     * @return Interval in milliseconds
+     */
+    public long getConcurrencyIntervalMillis() {
+        String interval = getProperty("concurrency.interval.ms");
+        return Long.parseLong(interval != null ? interval : "10000");
+    }
+    
+    /**
+     * Get path of the concurrency timeline CSV
+     * 
+     * @return File path
+     */
+    public String getConcurrencyTimelinePath() {
+        String path = getProperty("concurrency.timeline.path");
+        return path != null ? path : "test-output/concurrency-timeline.csv";
+    }
+    
+    /**
+     * Get comma separated property value as a list
+     * 
+     * @param key Property key
+     * @return List of trimmed, non-empty values
+     */
+    public List<String> getListProperty(String key) {
+        List<String> values = new ArrayList<>();
+        String value = getProperty(key);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Check if the network filter is enabled for every test
+     * 
+     * @return true if enabled
+     */
+    public boolean isNetworkFilterEnabled() {
+        String enabled = getProperty("network.filter.enabled");
+        return Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Get resource categories blocked by the network filter
+     * 
+     * @return Category names (analytics, fonts, images, media)
+     */
+    public List<String> getNetworkBlockCategories() {
+        return getListProperty("network.block.categories");
+    }
+    
+    /**
+     * Get URL patterns blocked by the network filter
+     * 
+     * @return URL patterns with * wildcards
+     */
+    public List<String> getNetworkBlockPatterns() {
+        return getListProperty("network.block.patterns");
+    }
+    
+    /**
+     * Check if the local static asset cache is enabled
+     * 
+     * @return true if enabled
+     */
+    public boolean isAssetCacheEnabled() {
+        String enabled = getProperty("asset.cache.enabled");
+        return Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Get asset cache directory path
+     * 
+     * @return Directory path
+     */
+    public String getAssetCacheDir() {
+        String dir = getProperty("asset.cache.dir");
+        return dir != null ? dir : "test-output/asset-cache/";
+    }
+    
+    /**
+     * Get how long cached assets are served before being refreshed
+     * 
+     * @return Time to live in hours
+     */
+    public int getAssetCacheTtlHours() {
+        String ttl = getProperty("asset.cache.ttl.hours");
+        return Integer.parseInt(ttl != null ? ttl : "24");
+    }
 }
\ No newline at end of file
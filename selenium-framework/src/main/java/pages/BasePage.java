@@ -2,6 +2,7 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -9,9 +10,14 @@ import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.interactions.Actions;
 import config.ConfigManager;
+import utils.PageReadiness;
+import utils.ScriptResources;
+import utils.TestContext;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract base class for Page Object Model implementation
@@ -20,11 +26,24 @@ import java.util.List;
  */
 public abstract class BasePage {
     
+    private static final String ACTIONABLE_SCRIPT = ScriptResources.load("/js/actionable.js");
+    
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected Actions actions;
     protected JavascriptExecutor jsExecutor;
     protected ConfigManager config;
+    protected TestContext context;
+    
+    /**
+     * Constructor for BasePage using an explicit test context
+     * 
+     * @param context Test context carrying the driver and configuration
+     */
+    public BasePage(TestContext context) {
+        this(context.getDriver(), context.getConfig());
+        this.context = context;
+    }
     
     /**
      * Constructor for BasePage
@@ -32,8 +51,12 @@ public abstract class BasePage {
      * @param driver WebDriver instance
      */
     public BasePage(WebDriver driver) {
+        this(driver, ConfigManager.getInstance());
+    }
+    
+    private BasePage(WebDriver driver, ConfigManager config) {
         this.driver = driver;
-        this.config = ConfigManager.getInstance();
+        this.config = config;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
         this.actions = new Actions(driver);
         this.jsExecutor = (JavascriptExecutor) driver;
@@ -45,6 +68,10 @@ public abstract class BasePage {
      * @param locator Element locator
      */
     protected void click(By locator) {
+        if (useFusedActions(locator)) {
+            waitUntilActionable(locator, "click").click();
+            return;
+        }
         WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
         scrollToElement(element);
         element.click();
@@ -57,11 +84,49 @@ public abstract class BasePage {
      * @param text Text to enter
      */
     protected void sendKeys(By locator, String text) {
+        if (useFusedActions(locator)) {
+            waitUntilActionable(locator, "type").sendKeys(text);
+            return;
+        }
         WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
         element.clear();
         element.sendKeys(text);
     }
     
+    /**
+     * Check if an interaction should use the fused actionability script
+     * 
+     * @param locator Element locator
+     * @return true if fused actions are enabled and the locator can be resolved in the page
+     */
+    private boolean useFusedActions(By locator) {
+        return config.isFusedActions() && locator instanceof By.Remotable;
+    }
+    
+    /**
+     * Wait until an element is actionable, scroll it into view if needed and, for typing,
+     * clear it - all in one asynchronous script instead of polled round trips
+     * 
+     * @param locator Element locator
+     * @param action click or type
+     * @return Element ready for a native click or sendKeys
+     * @throws TimeoutException if the element is not actionable within the explicit wait
+     */
+    private WebElement waitUntilActionable(By locator, String action) {
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        // Resolve before the script timeout so the reason is reported instead of a ScriptTimeoutException
+        long timeoutMillis = Math.min(config.getExplicitWait() * 1000L, config.getScriptTimeout() * 1000L - 250);
+        Object result = jsExecutor.executeAsyncScript(ACTIONABLE_SCRIPT,
+                parameters.using(), parameters.value(), action, timeoutMillis);
+        
+        Map<?, ?> outcome = result instanceof Map ? (Map<?, ?>) result : Collections.emptyMap();
+        if (outcome.get("element") instanceof WebElement) {
+            return (WebElement) outcome.get("element");
+        }
+        throw new TimeoutException("Element " + locator + " not actionable for " + action + " after "
+                + timeoutMillis + " ms: " + outcome.get("error"));
+    }
+    
     /**
      * Get text content of element
      * 
@@ -265,27 +330,44 @@ public abstract class BasePage {
      * Refresh the current page
      */
     protected void refreshPage() {
-        driver.navigate().refresh();
+        navigate(() -> driver.navigate().refresh());
     }
     
     /**
      * Navigate back in browser history
      */
     protected void navigateBack() {
-        driver.navigate().back();
+        navigate(() -> driver.navigate().back());
     }
     
     /**
      * Navigate forward in browser history
      */
     protected void navigateForward() {
-        driver.navigate().forward();
+        navigate(() -> driver.navigate().forward());
+    }
+    
+    /**
+     * Run a navigation command; EAGER/NONE strategies also wait until the new document is ready
+     * 
+     * @param navigation Navigation command
+     */
+    private void navigate(Runnable navigation) {
+        if (PageReadiness.isEnabled()) {
+            PageReadiness.navigate(driver, navigation);
+        } else {
+            navigation.run();
+        }
     }
     
     /**
      * Wait for page to load completely
      */
     protected void waitForPageLoad() {
+        if (PageReadiness.isEnabled()) {
+            PageReadiness.waitUntilReady(driver);
+            return;
+        }
         wait.until(webDriver -> jsExecutor.executeScript("return document.readyState").equals("complete"));
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import utils.TestContext;
 import utils.WaitUtils;
 
 import java.util.List;
@@ -77,6 +78,10 @@ public class HomePage extends BasePage {
         super(driver);
     }
 
+    public HomePage(TestContext context) {
+        super(context);
+    }
+
     // Page verification methods
     public boolean isHomePageLoaded() {
         return isElementDisplayed(WELCOME_MESSAGE) && 
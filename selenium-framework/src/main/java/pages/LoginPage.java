@@ -4,6 +4,7 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import utils.TestContext;
 import utils.WaitUtils;
 
 /**
@@ -44,6 +45,10 @@ public class LoginPage extends BasePage {
         super(driver);
     }
 
+    public LoginPage(TestContext context) {
+        super(context);
+    }
+
     // Page actions
     public void enterUsername(String username) {
         WaitUtils.waitForElementToBeVisible(driver, USERNAME_FIELD);
@@ -0,0 +1,303 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local record/replay cache for static assets (JS, CSS, fonts, images).
+ * The first browser records assets to disk; later browsers are served from the cache
+ * through DevTools request interception, so nothing is re-downloaded.
+ *
+ * @author Brian LaTorraca
+ */
+public class AssetCache {
+
+    private static final Logger log = LogManager.getLogger(AssetCache.class);
+
+    private static AssetCache instance;
+
+    // Describe the connection, not the asset; the replayed body is also already decoded and sized anew
+    private static final Set<String> NOT_REPLAYED_HEADERS = Set.of("connection", "keep-alive",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "content-encoding", "content-length");
+
+    private final Path indexDir;
+    private final Path objectDir;
+    private final List<String> extensions;
+    private final List<String> hosts;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Cached response metadata; the body is stored under its content hash
+     */
+    private static class Entry {
+        final String contentHash;
+        final List<Map.Entry<String, String>> headers;
+        final long storedAt;
+
+        Entry(String contentHash, List<Map.Entry<String, String>> headers, long storedAt) {
+            this.contentHash = contentHash;
+            this.headers = headers;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private AssetCache(ConfigManager config) {
+        Path root = new File(config.getAssetCacheDir()).toPath();
+        this.indexDir = root.resolve("index");
+        this.objectDir = root.resolve("objects");
+        this.extensions = config.getListProperty("asset.cache.extensions");
+        this.hosts = config.getListProperty("asset.cache.hosts");
+        this.ttlMillis = TimeUnit.HOURS.toMillis(config.getAssetCacheTtlHours());
+    }
+
+    /**
+     * Get the shared asset cache
+     *
+     * @return AssetCache instance
+     */
+    public static synchronized AssetCache getInstance() {
+        if (instance == null) {
+            instance = new AssetCache(ConfigManager.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Route static asset requests of a test context's browser through the cache
+     *
+     * @param context Test context
+     */
+    public void attach(TestContext context) {
+        WebDriver driver = context.getDriver();
+        if (!(driver instanceof HasDevTools)) {
+            log.info("Asset cache not attached: browser has no DevTools support");
+            return;
+        }
+
+        try {
+            NetworkInterceptor interceptor = new NetworkInterceptor(driver, cachingFilter(context));
+            context.onClose(interceptor::close);
+        } catch (DevToolsException | UnsupportedOperationException e) {
+            log.warn("Asset cache not attached: " + e.getMessage());
+        }
+    }
+
+    private Filter cachingFilter(TestContext context) {
+        return next -> request -> {
+            if (!isCacheable(request)) {
+                return next.execute(request);
+            }
+
+            String url = request.getUri();
+            Entry entry = lookup(url);
+            byte[] cached = entry != null ? readBody(url, entry) : null;
+            if (cached != null) {
+                context.addMetric("asset.cache.hits", 1);
+                context.addMetric("asset.cache.bytes.served", cached.length);
+                // Original headers (CORS, caching, content type) so the page sees the response it recorded
+                HttpResponse replay = new HttpResponse().setStatus(200);
+                entry.headers.forEach(header -> replay.addHeader(header.getKey(), header.getValue()));
+                return replay.setContent(Contents.bytes(cached));
+            }
+
+            HttpResponse response = next.execute(request);
+            if (response.getStatus() == 200 && isStorable(response)) {
+                byte[] body = Contents.bytes(response.getContent());
+                response.setContent(Contents.bytes(body));
+                store(url, replayedHeaders(response), body);
+                context.addMetric("asset.cache.misses", 1);
+            }
+            return response;
+        };
+    }
+
+    private boolean isCacheable(HttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+
+        String url = request.getUri();
+        String path = url.split("[?#]", 2)[0].toLowerCase(Locale.ROOT);
+        if (!hosts.isEmpty() && hosts.stream().noneMatch(url::contains)) {
+            return false;
+        }
+        return extensions.stream().anyMatch(extension -> path.endsWith("." + extension));
+    }
+
+    /**
+     * Check if a response may be shared between browsers: not private or no-store,
+     * no cookies, and no content negotiation beyond compression
+     *
+     * @param response Response of the origin
+     * @return true if the response can be recorded
+     */
+    private boolean isStorable(HttpResponse response) {
+        if (response.getHeader("Set-Cookie") != null) {
+            return false;
+        }
+        for (String cacheControl : response.getHeaders("Cache-Control")) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return false;
+            }
+        }
+        for (String vary : response.getHeaders("Vary")) {
+            boolean compressionOnly = Arrays.stream(vary.split(","))
+                    .map(String::trim)
+                    .allMatch(field -> field.isEmpty() || "accept-encoding".equalsIgnoreCase(field));
+            if (!compressionOnly) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Map.Entry<String, String>> replayedHeaders(HttpResponse response) {
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            if (!NOT_REPLAYED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                for (String value : response.getHeaders(name)) {
+                    headers.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+                }
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Find a cache entry in memory or on disk
+     *
+     * @param url Asset URL
+     * @return Entry, or null on a miss or expired entry
+     */
+    private Entry lookup(String url) {
+        Entry entry = entries.computeIfAbsent(url, this::loadEntry);
+        if (entry != null && System.currentTimeMillis() - entry.storedAt > ttlMillis) {
+            entries.remove(url);
+            return null;
+        }
+        return entry;
+    }
+
+    private byte[] readBody(String url, Entry entry) {
+        try {
+            return Files.readAllBytes(objectDir.resolve(entry.contentHash));
+        } catch (IOException e) {
+            entries.remove(url);
+            return null;
+        }
+    }
+
+    private Entry loadEntry(String url) {
+        Path indexFile = indexDir.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)) + ".properties");
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(indexFile)) {
+            properties.load(input);
+        } catch (IOException e) {
+            return null;
+        }
+        if (properties.getProperty("header.count") == null) {
+            // Recorded without headers; expire it so the asset is recorded again with them
+            return null;
+        }
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        int headerCount = Integer.parseInt(properties.getProperty("header.count"));
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new AbstractMap.SimpleImmutableEntry<>(properties.getProperty("header." + i + ".name"),
+                    properties.getProperty("header." + i + ".value")));
+        }
+        return new Entry(properties.getProperty("content.hash"), headers,
+                Long.parseLong(properties.getProperty("stored.at", "0")));
+    }
+
+    private void store(String url, List<Map.Entry<String, String>> headers, byte[] body) {
+        String contentHash = sha256(body);
+        Entry entry = new Entry(contentHash, headers, System.currentTimeMillis());
+
+        Properties properties = new Properties();
+        properties.setProperty("url", url);
+        properties.setProperty("content.hash", entry.contentHash);
+        properties.setProperty("stored.at", String.valueOf(entry.storedAt));
+        properties.setProperty("header.count", String.valueOf(headers.size()));
+        for (int i = 0; i < headers.size(); i++) {
+            properties.setProperty("header." + i + ".name", headers.get(i).getKey());
+            properties.setProperty("header." + i + ".value", headers.get(i).getValue());
+        }
+
+        try {
+            Files.createDirectories(objectDir);
+            Files.createDirectories(indexDir);
+
+            // Identical bodies (same content hash) are stored once
+            Path object = objectDir.resolve(contentHash);
+            if (!Files.exists(object)) {
+                writeAtomically(object, body);
+            }
+
+            Path temp = Files.createTempFile(indexDir, "entry", ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, null);
+            }
+            Files.move(temp, indexDir.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)) + ".properties"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            entries.put(url, entry);
+        } catch (IOException e) {
+            log.warn("Failed to cache asset " + url + ": " + e.getMessage());
+        }
+    }
+
+    private void writeAtomically(Path target, byte[] body) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "object", ".tmp");
+        Files.write(temp, body);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
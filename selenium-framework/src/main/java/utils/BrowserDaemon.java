@@ -0,0 +1,380 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived local process holding warm Chrome/Edge browsers across Maven runs.
+ * A client leases a fresh browser context (own cookies, storage, cache and page)
+ * and attaches a driver session to it through the browser's debugger address;
+ * releasing the lease disposes the context, so no state carries over to the next client.
+ * Browsers run with the daemon's own configuration; a lease asking for a different
+ * browser setup (profile, headless, options) is refused and the client launches locally.
+ *
+ * <pre>
+ * POST   /leases?browser=chrome[&amp;width=W&amp;height=H][&amp;pid=P][&amp;setup=S]
+ *                                                      -&gt; {"id", "debuggerAddress", "targetId"}
+ *                                                         or 409 on a setup mismatch
+ * DELETE /leases/{id}                                  -&gt; 204
+ * GET    /status                                       -&gt; {"browsers", "leases"}
+ * POST   /shutdown
+ * </pre>
+ *
+ * @author Brian LaTorraca
+ */
+public class BrowserDaemon {
+
+    private static final Logger log = LogManager.getLogger(BrowserDaemon.class);
+
+    private static final Json JSON = new Json();
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private static volatile boolean absenceReported;
+
+    private final ConfigManager config;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor = Executors.newFixedThreadPool(8);
+    private final ScheduledExecutorService reclaimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "browser-daemon-reclaimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, ActiveLease> leases = new ConcurrentHashMap<>();
+    private final Object restartLock = new Object();
+
+    /**
+     * Browser context leased by a client
+     */
+    public static class Lease {
+        public final String id;
+        public final String debuggerAddress;
+        public final String targetId;
+
+        Lease(String id, String debuggerAddress, String targetId) {
+            this.id = id;
+            this.debuggerAddress = debuggerAddress;
+            this.targetId = targetId;
+        }
+    }
+
+    private static class ActiveLease {
+        final SharedBrowser browser;
+        final SharedBrowser.IsolatedContext context;
+        // Process holding the lease, 0 if the client did not say
+        final long clientPid;
+        final long leasedAt = System.currentTimeMillis();
+
+        ActiveLease(SharedBrowser browser, SharedBrowser.IsolatedContext context, long clientPid) {
+            this.browser = browser;
+            this.context = context;
+            this.clientPid = clientPid;
+        }
+    }
+
+    private BrowserDaemon(ConfigManager config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getBrowserDaemonPort()), 0);
+        server.setExecutor(requestExecutor);
+        server.createContext("/leases", this::handleLeases);
+        server.createContext("/status", this::handleStatus);
+        server.createContext("/shutdown", exchange -> {
+            respond(exchange, 204, null);
+            new Thread(this::stop, "browser-daemon-shutdown").start();
+        });
+    }
+
+    /**
+     * Run the daemon until /shutdown is requested or the process is stopped
+     *
+     * @param args Not used; settings come from config.properties and system properties
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        BrowserDaemon daemon = start(ConfigManager.getInstance());
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "browser-daemon-stop"));
+    }
+
+    /**
+     * Start the daemon and warm up the configured browsers
+     *
+     * @param config Configuration
+     * @return Running daemon
+     * @throws IOException if the port cannot be bound
+     */
+    public static BrowserDaemon start(ConfigManager config) throws IOException {
+        BrowserDaemon daemon = new BrowserDaemon(config);
+        for (String browserName : config.getBrowserDaemonBrowsers()) {
+            daemon.browserFor(browserName.toLowerCase());
+        }
+        long interval = TimeUnit.MINUTES.toMillis(1);
+        daemon.reclaimer.scheduleWithFixedDelay(daemon::reclaimExpiredLeases, interval, interval, TimeUnit.MILLISECONDS);
+        daemon.server.start();
+        log.info("Browser daemon listening on " + config.getBrowserDaemonUrl()
+                + " with " + config.getBrowserDaemonBrowsers());
+        return daemon;
+    }
+
+    /**
+     * Stop serving, dispose all leased contexts and quit the browsers
+     */
+    public synchronized void stop() {
+        if (requestExecutor.isShutdown()) {
+            return;
+        }
+        reclaimer.shutdownNow();
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        leases.values().forEach(lease -> lease.browser.disposeContext(lease.context));
+        leases.clear();
+        SharedBrowser.closeAll();
+        ProfileTemplates.deleteAll();
+        log.info("Browser daemon stopped");
+    }
+
+    /**
+     * Lease a browser context from a running daemon
+     *
+     * @param daemonUrl Daemon base URL
+     * @param browserName chrome or edge
+     * @param viewport Page width and height, or null for the browser default
+     * @return Lease, or null if no daemon is running or it could not serve the lease
+     */
+    public static Lease lease(String daemonUrl, String browserName, int[] viewport) {
+        String query = "?browser=" + browserName
+                + (viewport != null ? "&width=" + viewport[0] + "&height=" + viewport[1] : "")
+                + "&pid=" + ProcessHandle.current().pid()
+                + "&setup=" + URLEncoder.encode(browserSetup(ConfigManager.getInstance(), browserName),
+                        StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(daemonUrl + "/leases" + query))
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Browser daemon refused lease (" + response.statusCode() + "): "
+                        + response.body() + "; launching " + browserName + " locally");
+                return null;
+            }
+            Map<String, Object> lease = JSON.toType(response.body(), Json.MAP_TYPE);
+            return new Lease((String) lease.get("id"), (String) lease.get("debuggerAddress"),
+                    (String) lease.get("targetId"));
+        } catch (ConnectException e) {
+            if (!absenceReported) {
+                absenceReported = true;
+                log.info("No browser daemon at " + daemonUrl + "; launching browsers locally");
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("Browser daemon lease failed: " + e.getMessage() + "; launching " + browserName + " locally");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while leasing a browser from the daemon", e);
+        }
+    }
+
+    /**
+     * Return a lease; the daemon disposes its browser context
+     *
+     * @param daemonUrl Daemon base URL
+     * @param lease Lease to return
+     */
+    public static void release(String daemonUrl, Lease lease) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(daemonUrl + "/leases/" + lease.id))
+                .timeout(Duration.ofSeconds(30))
+                .DELETE()
+                .build();
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.warn("Failed to release browser daemon lease " + lease.id + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Describe the configuration a browser is launched with, so a client and the daemon
+     * can tell whether a leased browser is the one the client would have started itself
+     *
+     * @param config Configuration
+     * @param browserName chrome or edge
+     * @return Setup description
+     */
+    static String browserSetup(ConfigManager config, String browserName) {
+        String options = config.getProperty(browserName + ".options");
+        return "profile=" + config.getBrowserProfile()
+                + ", headless=" + config.isHeadless()
+                + ", template=" + config.isProfileTemplateEnabled()
+                + ", options=" + (options != null ? options : "");
+    }
+
+    private void handleLeases(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if ("POST".equals(method) && "/leases".equals(path)) {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                String browserName = query.getOrDefault("browser", "chrome").toLowerCase();
+                if (!DriverManager.isChromium(browserName)) {
+                    respond(exchange, 400, error("Browser not supported by the daemon: " + browserName));
+                    return;
+                }
+                String requestedSetup = query.get("setup");
+                String setup = browserSetup(config, browserName);
+                if (requestedSetup != null && !requestedSetup.equals(setup)) {
+                    log.warn("Refused " + browserName + " lease: requested " + requestedSetup
+                            + ", daemon runs " + setup);
+                    respond(exchange, 409, error("Daemon " + browserName + " runs with " + setup
+                            + ", requested " + requestedSetup));
+                    return;
+                }
+                int[] viewport = query.containsKey("width") && query.containsKey("height")
+                        ? new int[]{Integer.parseInt(query.get("width")), Integer.parseInt(query.get("height"))}
+                        : null;
+                long clientPid = Long.parseLong(query.getOrDefault("pid", "0"));
+                respond(exchange, 200, createLease(browserName, viewport, clientPid));
+            } else if ("DELETE".equals(method) && path.startsWith("/leases/")) {
+                boolean released = releaseLease(path.substring("/leases/".length()));
+                respond(exchange, released ? 204 : 404, null);
+            } else {
+                respond(exchange, 405, error(method + " " + path + " not supported"));
+            }
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        Map<String, Object> status = new HashMap<>();
+        status.put("browsers", config.getBrowserDaemonBrowsers());
+        status.put("leases", leases.size());
+        respond(exchange, 200, status);
+    }
+
+    private Map<String, Object> createLease(String browserName, int[] viewport, long clientPid) {
+        SharedBrowser browser = browserFor(browserName);
+        SharedBrowser.IsolatedContext context;
+        try {
+            context = browser.createContext(viewport);
+        } catch (RuntimeException e) {
+            // The browser crashed or was closed since the last lease; start a new one
+            browser = restart(browserName, browser, e);
+            context = browser.createContext(viewport);
+        }
+
+        String id = UUID.randomUUID().toString();
+        leases.put(id, new ActiveLease(browser, context, clientPid));
+        Map<String, Object> lease = new HashMap<>();
+        lease.put("id", id);
+        lease.put("debuggerAddress", browser.getDebuggerAddress());
+        lease.put("targetId", context.targetId);
+        return lease;
+    }
+
+    /**
+     * Replace a failed browser once; concurrent requests that saw the same failure
+     * get the replacement instead of closing it again
+     */
+    private SharedBrowser restart(String browserName, SharedBrowser failed, RuntimeException cause) {
+        synchronized (restartLock) {
+            if (SharedBrowser.closeIfCurrent(browserName, failed)) {
+                log.warn("Restarting daemon " + browserName + " browser: " + cause.getMessage());
+            }
+            return browserFor(browserName);
+        }
+    }
+
+    private boolean releaseLease(String id) {
+        ActiveLease lease = leases.remove(id);
+        if (lease == null) {
+            return false;
+        }
+        lease.browser.disposeContext(lease.context);
+        return true;
+    }
+
+    /**
+     * Dispose contexts of clients that exited without releasing them, e.g. a Maven run that was killed.
+     * A lease whose client is alive is never reclaimed, however long its test runs; leases without
+     * a client pid expire after the lease timeout.
+     */
+    private void reclaimExpiredLeases() {
+        long cutoff = System.currentTimeMillis()
+                - TimeUnit.MINUTES.toMillis(config.getBrowserDaemonLeaseTimeoutMinutes());
+        leases.forEach((id, lease) -> {
+            boolean abandoned = lease.clientPid > 0
+                    ? !ProcessHandle.of(lease.clientPid).map(ProcessHandle::isAlive).orElse(false)
+                    : lease.leasedAt < cutoff;
+            if (abandoned && releaseLease(id)) {
+                log.info("Reclaimed abandoned browser daemon lease " + id);
+            }
+        });
+    }
+
+    private SharedBrowser browserFor(String browserName) {
+        return SharedBrowser.get(browserName, afterQuit -> DriverManager.createHostDriver(browserName, afterQuit));
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            parameters.put(keyValue[0],
+                    keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return parameters;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] json = JSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(json);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the driver and browser processes of a test context, samples their
+ * memory (RSS from /proc) and CPU time, and kills the browser of a session whose
+ * process tree exceeds the configured memory budget, so only that test fails
+ * instead of the agent running out of memory under every session.
+ *
+ * @author Brian LaTorraca
+ */
+public class BrowserProcessMonitor {
+
+    private static final Logger log = LogManager.getLogger(BrowserProcessMonitor.class);
+
+    private static final Path PROC = Paths.get("/proc");
+    private static final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "browser-process-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TestContext context;
+    private final ProcessHandle driverProcess;
+    private final long memoryBudgetBytes;
+    private volatile ScheduledFuture<?> sampling;
+    private long peakRssBytes;
+    private long peakProcessCount;
+    private long cpuMillis;
+
+    /**
+     * Resource usage of a session's process tree at one point in time
+     */
+    public static class Sample {
+        public final int processCount;
+        public final long rssBytes;
+        public final long cpuMillis;
+
+        Sample(int processCount, long rssBytes, long cpuMillis) {
+            this.processCount = processCount;
+            this.rssBytes = rssBytes;
+            this.cpuMillis = cpuMillis;
+        }
+    }
+
+    private BrowserProcessMonitor(TestContext context, ProcessHandle driverProcess, long memoryBudgetBytes) {
+        this.context = context;
+        this.driverProcess = driverProcess;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Start monitoring the processes behind a test context's driver.
+     * Metrics are recorded into the context when it is closed.
+     *
+     * @param context Test context
+     * @param driverProcess Driver process of the context
+     * @return BrowserProcessMonitor
+     */
+    public static BrowserProcessMonitor attach(TestContext context, ProcessHandle driverProcess) {
+        long budgetBytes = context.getConfig().getBrowserMemoryBudgetMb() * 1024L * 1024L;
+        BrowserProcessMonitor monitor = new BrowserProcessMonitor(context, driverProcess, budgetBytes);
+        context.recordMetric("process.driver.pid", driverProcess.pid());
+        monitor.getBrowserProcess().ifPresent(browser -> context.recordMetric("process.browser.pid", browser.pid()));
+
+        long interval = context.getConfig().getBrowserMonitorIntervalMillis();
+        monitor.sampling = sampler.scheduleWithFixedDelay(monitor::check, interval, interval, TimeUnit.MILLISECONDS);
+        context.onClose(monitor::stop);
+        return monitor;
+    }
+
+    public ProcessHandle getDriverProcess() {
+        return driverProcess;
+    }
+
+    /**
+     * Get the main browser process (the first live child of the driver)
+     *
+     * @return Browser process, if started
+     */
+    public Optional<ProcessHandle> getBrowserProcess() {
+        return driverProcess.children().filter(ProcessHandle::isAlive).findFirst();
+    }
+
+    /**
+     * Get the live driver process and all of its descendants (browser, renderers, GPU, ...)
+     *
+     * @return Live processes of the session
+     */
+    public List<ProcessHandle> getProcessTree() {
+        List<ProcessHandle> tree = new ArrayList<>();
+        if (driverProcess.isAlive()) {
+            tree.add(driverProcess);
+        }
+        tree.addAll(driverProcess.descendants().filter(ProcessHandle::isAlive).collect(Collectors.toList()));
+        return tree;
+    }
+
+    /**
+     * Sample RSS and CPU time of the session's process tree
+     *
+     * @return Sample
+     */
+    public synchronized Sample sample() {
+        List<ProcessHandle> tree = getProcessTree();
+        long rss = 0;
+        long cpu = 0;
+        for (ProcessHandle process : tree) {
+            rss += readRssBytes(process.pid());
+            cpu += process.info().totalCpuDuration().map(duration -> duration.toMillis()).orElse(0L);
+        }
+        peakRssBytes = Math.max(peakRssBytes, rss);
+        peakProcessCount = Math.max(peakProcessCount, tree.size());
+        // Exited renderers take their CPU time with them; keep the highest total seen
+        cpuMillis = Math.max(cpuMillis, cpu);
+        return new Sample(tree.size(), rss, cpu);
+    }
+
+    /**
+     * Read the resident set size of a process from /proc/[pid]/status
+     *
+     * @param pid Process id
+     * @return RSS in bytes, or 0 when /proc is not available
+     */
+    static long readRssBytes(long pid) {
+        Path status = PROC.resolve(String.valueOf(pid)).resolve("status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kilobytes = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kilobytes) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process exited between listing and reading, or no procfs on this platform
+        }
+        return 0;
+    }
+
+    private void check() {
+        try {
+            Sample sample = sample();
+            if (memoryBudgetBytes > 0 && sample.rssBytes > memoryBudgetBytes && context.getKillReason() == null) {
+                killOverBudget(sample);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Browser process sampling failed for " + context.getTestName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kill the browser processes of an over-budget session. The driver process stays up, so the
+     * running test fails on its next command and the owning thread still quits the session cleanly.
+     */
+    private void killOverBudget(Sample sample) {
+        log.warn("Browser session of " + context.getTestName() + " uses " + sample.rssBytes / (1024 * 1024)
+                + " MB in " + sample.processCount + " processes, over the budget of "
+                + memoryBudgetBytes / (1024 * 1024) + " MB; killing the browser");
+        context.markKilled("memory budget of " + memoryBudgetBytes / (1024 * 1024) + " MB exceeded");
+        int killed = ProcessReaper.kill(driverProcess.children().collect(Collectors.toList()));
+        context.recordMetric("process.memory.killed", killed);
+    }
+
+    private void stop() {
+        ScheduledFuture<?> task = sampling;
+        if (task != null) {
+            task.cancel(false);
+        }
+        sample();
+        context.recordMetric("process.rss.peak.bytes", peakRssBytes);
+        context.recordMetric("process.cpu.ms", cpuMillis);
+        context.recordMetric("process.count.peak", peakProcessCount);
+        log.info("Browser processes [" + context.getTestName() + "]: peak " + peakRssBytes / (1024 * 1024)
+                + " MB RSS in " + peakProcessCount + " processes, " + cpuMillis + " ms CPU");
+    }
+}
@@ -0,0 +1,102 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Named browser launch profiles and browser user-data directory handling
+ *
+ * @author Brian LaTorraca
+ */
+public class BrowserProfiles {
+
+    private static final Logger log = LogManager.getLogger(BrowserProfiles.class);
+
+    public static final String DEFAULT = "default";
+    public static final String CI_THROUGHPUT = "ci-throughput";
+
+    private static final Path TMPFS = Paths.get("/dev/shm");
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private BrowserProfiles() {}
+
+    /**
+     * Chromium switches of the ci-throughput profile: new headless mode, fixed viewport,
+     * no background throttling and no first-run or component update work
+     *
+     * @param width Viewport width
+     * @param height Viewport height
+     * @return Command line switches
+     */
+    public static List<String> ciThroughputChromiumArguments(int width, int height) {
+        return Arrays.asList(
+                "--headless=new",
+                "--window-size=" + width + "," + height,
+                "--disable-background-timer-throttling",
+                "--disable-backgrounding-occluded-windows",
+                "--disable-renderer-backgrounding",
+                "--disable-background-networking",
+                "--disable-component-update",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--no-first-run",
+                "--no-default-browser-check",
+                "--mute-audio",
+                "--hide-scrollbars");
+    }
+
+    /**
+     * Create an empty browser user-data directory, on tmpfs when available
+     *
+     * @param prefix Directory name prefix
+     * @return Created directory
+     */
+    public static Path createTempProfileDir(String prefix) {
+        try {
+            return Files.createTempDirectory(getTempRoot(), prefix);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create browser profile directory", e);
+        }
+    }
+
+    /**
+     * Get the root for temporary profile directories: /dev/shm when it is a writable
+     * tmpfs, otherwise the JVM temp directory
+     *
+     * @return Directory path
+     */
+    public static Path getTempRoot() {
+        if (Files.isDirectory(TMPFS) && Files.isWritable(TMPFS)) {
+            return TMPFS;
+        }
+        return new File(System.getProperty("java.io.tmpdir")).toPath();
+    }
+
+    /**
+     * Delete a directory tree, ignoring files that disappear or cannot be removed
+     *
+     * @param directory Directory to delete
+     */
+    public static void deleteQuietly(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to delete browser profile " + directory + ": " + e.getMessage());
+        }
+    }
+}
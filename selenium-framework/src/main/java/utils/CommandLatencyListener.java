@@ -0,0 +1,45 @@
+package utils;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Feeds the duration of every WebDriver, element and navigation call into the
+ * concurrency controller, as a measure of how loaded the browsers are.
+ * Element lookups and async scripts are left out: they block on the implicit
+ * wait or on the application rather than on the browser, so their duration
+ * says nothing about load
+ *
+ * @author Brian LaTorraca
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+    private static final Set<String> WAITING_CALLS = Set.of("findElement", "findElements", "executeAsyncScript");
+
+    private final ConcurrencyController controller;
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    public CommandLatencyListener(ConcurrencyController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (WAITING_CALLS.contains(method.getName())) {
+            startedAt.remove();
+            return;
+        }
+        startedAt.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        Long start = startedAt.get();
+        if (start != null) {
+            startedAt.remove();
+            controller.recordCommandLatency((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
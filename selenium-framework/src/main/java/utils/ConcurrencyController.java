@@ -0,0 +1,334 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of live browser sessions. In fixed mode the limit is
+ * max.browser.sessions; in adaptive mode it starts low and is adjusted AIMD-style
+ * from system load, available memory and WebDriver command latency:
+ * one more slot while the machine has headroom and tests are waiting,
+ * half the slots as soon as any signal is over its threshold.
+ *
+ * @author Brian LaTorraca
+ */
+public class ConcurrencyController {
+
+    private static final Logger log = LogManager.getLogger(ConcurrencyController.class);
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+    private final int minSlots;
+    private final int maxSlots;
+    private final boolean adaptive;
+    private final String label;
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private int limit;
+    private int active;
+    private int waiting;
+    private boolean coolingDown;
+    private PrintWriter timeline;
+
+    /**
+     * Machine and browser health observed over one adjustment interval
+     */
+    public static class Signals {
+        public final double loadPerCore;
+        public final long availableMemoryMb;
+        public final long latencyP95Millis;
+
+        public Signals(double loadPerCore, long availableMemoryMb, long latencyP95Millis) {
+            this.loadPerCore = loadPerCore;
+            this.availableMemoryMb = availableMemoryMb;
+            this.latencyP95Millis = latencyP95Millis;
+        }
+    }
+
+    private ConcurrencyController(int initialSlots, int minSlots, int maxSlots, boolean adaptive, String label) {
+        this.limit = initialSlots;
+        this.minSlots = minSlots;
+        this.maxSlots = maxSlots;
+        this.adaptive = adaptive;
+        this.label = label;
+    }
+
+    /**
+     * Create a controller for the configured concurrency mode
+     *
+     * @param config Configuration
+     * @return Fixed or adaptive controller
+     */
+    public static ConcurrencyController create(ConfigManager config) {
+        return create(config, null);
+    }
+
+    /**
+     * Create a controller for one of several browser pools
+     *
+     * @param config Configuration
+     * @param label Pool name used in log lines and the timeline file name, or null for a single pool
+     * @return Fixed or adaptive controller
+     */
+    public static ConcurrencyController create(ConfigManager config, String label) {
+        if (!config.isAdaptiveConcurrency()) {
+            int slots = config.getMaxBrowserSessions();
+            return new ConcurrencyController(slots, slots, slots, false, label);
+        }
+
+        int max = config.getConcurrencyMax();
+        int min = Math.min(config.getConcurrencyMin(), max);
+        int initial = Math.max(min, Math.min(config.getConcurrencyInitial(), max));
+        ConcurrencyController controller = new ConcurrencyController(initial, min, max, true, label);
+        controller.startAdjusting(config);
+        log.info(controller.logPrefix() + ": starting with " + initial + " browser slots (min " + min
+                + ", max " + max + ")");
+        return controller;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Wait until a browser session slot is available under the current limit
+     *
+     * @param timeoutMillis Maximum time to wait
+     * @return true if a slot was acquired, false if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            waiting++;
+            try {
+                while (active >= limit) {
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = slotFreed.awaitNanos(remainingNanos);
+                }
+            } finally {
+                waiting--;
+            }
+            active++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Describe the current slot usage, e.g. for timeout messages
+     *
+     * @return Limit, active and waiting counts
+     */
+    public String describe() {
+        lock.lock();
+        try {
+            return "limit " + limit + ", active " + active + ", waiting " + waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return a browser session slot
+     */
+    public void release() {
+        lock.lock();
+        try {
+            active--;
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record the duration of one WebDriver command
+     *
+     * @param millis Command latency in milliseconds
+     */
+    public void recordCommandLatency(long millis) {
+        latencies.add(millis);
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActive() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply the AIMD rule: halve on any overload signal, add one slot when healthy and
+     * tests are waiting for a browser, otherwise keep the limit
+     *
+     * @param limit Current limit
+     * @param waiting Tests waiting for a slot
+     * @param signals Observed signals
+     * @param thresholds Overload thresholds
+     * @return New limit before clamping to min/max
+     */
+    static int nextLimit(int limit, int waiting, Signals signals, Signals thresholds) {
+        boolean overloaded = signals.loadPerCore > thresholds.loadPerCore
+                || signals.availableMemoryMb < thresholds.availableMemoryMb
+                || signals.latencyP95Millis > thresholds.latencyP95Millis;
+        if (overloaded) {
+            return limit / 2;
+        }
+        return waiting > 0 ? limit + 1 : limit;
+    }
+
+    private void startAdjusting(ConfigManager config) {
+        Signals thresholds = new Signals(config.getConcurrencyTargetLoad(),
+                config.getConcurrencyMinFreeMemoryMb(), config.getConcurrencyTargetLatencyMillis());
+        String timelinePath = config.getConcurrencyTimelinePath();
+        if (label != null) {
+            timelinePath = timelinePath.replaceFirst("(\\.csv)?$", "-" + label + "$1");
+        }
+        openTimeline(timelinePath);
+
+        ScheduledExecutorService adjuster = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getConcurrencyIntervalMillis();
+        adjuster.scheduleWithFixedDelay(() -> {
+            try {
+                adjust(thresholds);
+            } catch (RuntimeException e) {
+                log.warn("Concurrency adjustment failed: " + e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void adjust(Signals thresholds) {
+        Signals signals = sampleSignals();
+        String action;
+        lock.lock();
+        try {
+            int previous = limit;
+            int next = nextLimit(limit, waiting, signals, thresholds);
+            // Load average lags behind; hold one interval after a decrease before growing again
+            if (next > limit && coolingDown) {
+                next = limit;
+            }
+            coolingDown = next < limit;
+            limit = Math.max(minSlots, Math.min(maxSlots, next));
+            action = limit > previous ? "increase" : limit < previous ? "decrease" : "hold";
+            if (limit > previous) {
+                slotFreed.signalAll();
+            }
+            if (limit != previous) {
+                log.info(logPrefix() + ": " + previous + " -> " + limit + " browser slots (load/core "
+                        + String.format("%.2f", signals.loadPerCore) + ", free " + signals.availableMemoryMb
+                        + " MB, p95 command " + signals.latencyP95Millis + " ms)");
+            }
+            writeTimeline(signals, action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String logPrefix() {
+        return "Adaptive concurrency" + (label != null ? " [" + label + "]" : "");
+    }
+
+    private Signals sampleSignals() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double load = os.getSystemLoadAverage();
+        double loadPerCore = load < 0 ? 0 : load / os.getAvailableProcessors();
+
+        List<Long> window;
+        synchronized (latencies) {
+            window = new ArrayList<>(latencies);
+            latencies.clear();
+        }
+        Collections.sort(window);
+        long p95 = window.isEmpty() ? 0 : window.get((int) Math.ceil(window.size() * 0.95) - 1);
+
+        return new Signals(loadPerCore, readAvailableMemoryMb(os), p95);
+    }
+
+    /**
+     * Read available memory from /proc/meminfo (MemAvailable counts reclaimable cache),
+     * falling back to free physical memory reported by the JVM
+     */
+    private static long readAvailableMemoryMb(OperatingSystemMXBean os) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux; use the JVM view below
+        }
+        // getFreeMemorySize (JDK 14+) replaces the deprecated getFreePhysicalMemorySize; look up whichever exists
+        for (String getter : new String[] {"getFreeMemorySize", "getFreePhysicalMemorySize"}) {
+            try {
+                Method method = Class.forName("com.sun.management.OperatingSystemMXBean").getMethod(getter);
+                return (Long) method.invoke(os) / (1024 * 1024);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Getter missing on this JDK, or not a HotSpot bean
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void openTimeline(String path) {
+        try {
+            File file = new File(path);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            timeline = new PrintWriter(new FileWriter(file, false), true);
+            timeline.println("timestamp,limit,active,waiting,load_per_core,available_memory_mb,latency_p95_ms,action");
+            log.info("Concurrency timeline: " + file.getPath());
+        } catch (IOException e) {
+            log.warn("Concurrency timeline disabled: " + e.getMessage());
+        }
+    }
+
+    private void writeTimeline(Signals signals, String action) {
+        if (timeline != null) {
+            timeline.println(Instant.now() + "," + limit + "," + active + "," + waiting + ","
+                    + String.format("%.2f", signals.loadPerCore) + "," + signals.availableMemoryMb + ","
+                    + signals.latencyP95Millis + "," + action);
+        }
+    }
+}
@@ -2,16 +2,36 @@ package utils;
 
 import config.ConfigManager;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Thread-safe WebDriver management for parallel test execution
@@ -20,36 +40,131 @@ import java.time.Duration;
  */
 public class DriverManager {
     
-    private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final Logger log = LogManager.getLogger(DriverManager.class);
+    
+    // Compatibility shim for getDriver(); the TestContext itself is the source of truth
+    private static final ThreadLocal<TestContext> contextThreadLocal = new ThreadLocal<>();
+    private static final Set<TestContext> liveContexts = ConcurrentHashMap.newKeySet();
     private static final ConfigManager config = ConfigManager.getInstance();
     
+    // MDC fields of log events from a thread with a bound context
+    private static final List<String> LOG_CONTEXT_KEYS = Arrays.asList("test", "browser", "session");
+    
+    // Live browser sessions are bounded here, independently of the number of test threads;
+    // each browser of a matrix run has its own pool
+    private static final Map<String, ConcurrencyController> sessionSlots = new ConcurrentHashMap<>();
+    
     /**
      * Private constructor to prevent instantiation
      */
     private DriverManager() {}
     
     /**
-     * Initialize WebDriver based on configuration
+     * Resources of a session being launched: its driver service, and cleanup
+     * actions to run once the browser has quit
+     */
+    private static class SessionLaunch {
+        final List<Runnable> afterQuit = new ArrayList<>();
+        DriverService service;
+        boolean sharedBrowser;
+        // Set when the session builds a profile template instead of using a profile of its own
+        Path templateDir;
+    }
+    
+    /**
+     * Initialize WebDriver based on configuration and bind it to the current thread
      */
     public static void setDriver() {
-        String browserName = getBrowserName().toLowerCase();
+        createContext(Thread.currentThread().getName());
+    }
+    
+    /**
+     * Create a test context with a new WebDriver and bind it to the current thread
+     * 
+     * @param testName Name of the test owning the context
+     * @return TestContext
+     */
+    public static TestContext createContext(String testName) {
+        return createContext(testName, getBrowserName());
+    }
+    
+    /**
+     * Create a test context with a new WebDriver of a given browser and bind it to the current thread
+     * 
+     * @param testName Name of the test owning the context
+     * @param browserName Browser to start, e.g. from the browser matrix
+     * @return TestContext
+     */
+    public static TestContext createContext(String testName, String browserName) {
+        browserName = browserName.toLowerCase();
+        ConcurrencyController slots = slotsFor(browserName);
+        acquireSessionSlot(slots);
         WebDriver driver;
+        SessionLaunch launch = new SessionLaunch();
+        long start = System.currentTimeMillis();
+        try {
+            driver = createDriver(browserName, launch);
+        } catch (RuntimeException e) {
+            launch.afterQuit.forEach(Runnable::run);
+            slots.release();
+            throw e;
+        }
+        String sessionId = driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null
+                ? ((RemoteWebDriver) driver).getSessionId().toString()
+                : "";
+        if (slots.isAdaptive()) {
+            // Command latency is one of the signals the adaptive slot limit reacts to
+            driver = new EventFiringDecorator<>(new CommandLatencyListener(slots)).decorate(driver);
+        }
         
-        switch (browserName) {
-            case "chrome":
-                driver = createChromeDriver();
-                break;
-            case "firefox":
-                driver = createFirefoxDriver();
-                break;
-            case "edge":
-                driver = createEdgeDriver();
-                break;
-            case "safari":
-                driver = createSafariDriver();
-                break;
-            default:
-                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        TestContext context = new TestContext(testName, browserName, sessionId, driver, config);
+        // An attached session (shared browser, daemon) owns only its driver; the browser tree belongs to the host
+        ProcessHandle driverProcess = launch.service != null && !launch.sharedBrowser
+                ? ProcessReaper.findDriverProcess(launch.service).orElse(null)
+                : null;
+        if (driverProcess != null && config.isProcessReaperEnabled()) {
+            // Registered first so leftover browser processes are killed before the profile dir is deleted
+            ProcessReaper.getInstance().register(context, driverProcess);
+        }
+        launch.afterQuit.forEach(context::onQuit);
+        context.recordMetric("driver.startup.ms", System.currentTimeMillis() - start);
+        liveContexts.add(context);
+        bindContext(context);
+        
+        if (config.isBrowserMonitorEnabled() && driverProcess != null) {
+            BrowserProcessMonitor.attach(context, driverProcess);
+        }
+        if (config.isAssetCacheEnabled()) {
+            AssetCache.getInstance().attach(context);
+        }
+        // Track fetch/XHR from document start for readiness and AJAX idle waits
+        if (PageReadiness.isTrackingRequired()) {
+            PageReadiness.install(driver);
+        }
+        return context;
+    }
+    
+    /**
+     * Create and configure a WebDriver
+     * 
+     * @param browserName Browser to start
+     * @param launch Collects the driver service and cleanup actions of the new session
+     */
+    private static WebDriver createDriver(String browserName, SessionLaunch launch) {
+        WebDriver driver;
+        
+        if (config.isGridEnabled()) {
+            driver = RemoteDriverFactory.create(createOptions(browserName, launch));
+        } else {
+            // A running browser daemon saves the launch; without one, start the browser here
+            driver = config.isBrowserDaemonEnabled() && isChromium(browserName)
+                    ? createDaemonDriver(browserName, launch)
+                    : null;
+            if (driver == null && config.isContextIsolation() && isChromium(browserName)) {
+                driver = createIsolatedDriver(browserName, launch);
+            } else if (driver == null) {
+                driver = createLocalDriver(browserName, launch);
+            }
         }
         
         // Configure timeouts
@@ -57,12 +172,141 @@ public class DriverManager {
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
         driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(config.getScriptTimeout()));
         
-        // Maximize window if specified
-        if (config.shouldMaximize()) {
+        // Maximize window if specified (ci-throughput uses a fixed viewport instead)
+        if (config.shouldMaximize() && !config.isCiThroughputProfile() && !launch.sharedBrowser) {
             driver.manage().window().maximize();
         }
         
-        driverThreadLocal.set(driver);
+        return driver;
+    }
+    
+    /**
+     * Start a driver executable and browser on this machine
+     */
+    private static WebDriver createLocalDriver(String browserName, SessionLaunch launch) {
+        switch (browserName) {
+            case "chrome":
+                return createChromeDriver(launch);
+            case "firefox":
+                return createFirefoxDriver(launch);
+            case "edge":
+                return createEdgeDriver(launch);
+            case "safari":
+                return createSafariDriver();
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        }
+    }
+    
+    /**
+     * Give the test its own browser context inside a shared Chrome/Edge process and
+     * attach a driver session to it; the context is disposed when the session quits
+     */
+    private static WebDriver createIsolatedDriver(String browserName, SessionLaunch launch) {
+        int[] viewport = config.isCiThroughputProfile() ? config.getViewportSize() : null;
+        SharedBrowser shared = SharedBrowser.get(browserName, afterQuit -> createHostDriver(browserName, afterQuit));
+        SharedBrowser.IsolatedContext isolated;
+        try {
+            isolated = shared.createContext(viewport);
+        } catch (RuntimeException e) {
+            // The shared browser crashed or was closed; replace it once, concurrent tests reuse the replacement
+            if (SharedBrowser.closeIfCurrent(browserName, shared)) {
+                log.warn("Restarting shared " + browserName + " browser: " + e.getMessage());
+            }
+            shared = SharedBrowser.get(browserName, afterQuit -> createHostDriver(browserName, afterQuit));
+            isolated = shared.createContext(viewport);
+        }
+        SharedBrowser browser = shared;
+        SharedBrowser.IsolatedContext context = isolated;
+        launch.afterQuit.add(() -> browser.disposeContext(context));
+        return attachDriver(browserName, browser.getDebuggerAddress(), context.targetId, launch);
+    }
+    
+    /**
+     * Lease a browser context from the browser daemon and attach a driver session to it
+     * 
+     * @return WebDriver, or null if no daemon is running
+     */
+    private static WebDriver createDaemonDriver(String browserName, SessionLaunch launch) {
+        BrowserDaemon.Lease lease = BrowserDaemon.lease(config.getBrowserDaemonUrl(), browserName,
+                config.isCiThroughputProfile() ? config.getViewportSize() : null);
+        if (lease == null) {
+            return null;
+        }
+        launch.afterQuit.add(() -> BrowserDaemon.release(config.getBrowserDaemonUrl(), lease));
+        return attachDriver(browserName, lease.debuggerAddress, lease.targetId, launch);
+    }
+    
+    /**
+     * Start the Chrome/Edge browser that owns a shared browser process, e.g. for
+     * context isolation or the browser daemon
+     * 
+     * @param browserName chrome or edge
+     * @param afterQuit Collects cleanup actions to run once the browser has quit
+     * @return Host WebDriver
+     */
+    static WebDriver createHostDriver(String browserName, List<Runnable> afterQuit) {
+        SessionLaunch host = new SessionLaunch();
+        try {
+            return createLocalDriver(browserName, host);
+        } finally {
+            afterQuit.addAll(host.afterQuit);
+        }
+    }
+    
+    /**
+     * Attach a driver session to a page of an already running Chrome/Edge browser.
+     * Quitting an attached session leaves the browser running.
+     */
+    private static WebDriver attachDriver(String browserName, String debuggerAddress, String targetId,
+                                          SessionLaunch launch) {
+        launch.sharedBrowser = true;
+        WebDriver driver;
+        if ("edge".equals(browserName)) {
+            EdgeOptions options = new EdgeOptions();
+            options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy()));
+            options.setExperimentalOption("debuggerAddress", debuggerAddress);
+            EdgeDriverService service = EdgeDriverService.createDefaultService();
+            launch.service = service;
+            driver = new EdgeDriver(service, options);
+        } else {
+            ChromeOptions options = new ChromeOptions();
+            options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy()));
+            options.setExperimentalOption("debuggerAddress", debuggerAddress);
+            ChromeDriverService service = ChromeDriverService.createDefaultService();
+            launch.service = service;
+            driver = new ChromeDriver(service, options);
+        }
+        
+        // The page of the browser context is the only window this session works with
+        driver.switchTo().window(targetId);
+        return driver;
+    }
+    
+    static boolean isChromium(String browserName) {
+        return "chrome".equals(browserName) || "edge".equals(browserName);
+    }
+    
+    /**
+     * Build the options of a browser; shared by local drivers and remote sessions
+     * 
+     * @param browserName Browser name
+     * @param launch Collects cleanup actions of the new session
+     * @return Browser options
+     */
+    private static Capabilities createOptions(String browserName, SessionLaunch launch) {
+        switch (browserName) {
+            case "chrome":
+                return createChromeOptions(launch);
+            case "firefox":
+                return createFirefoxOptions();
+            case "edge":
+                return createEdgeOptions(launch);
+            case "safari":
+                return new SafariOptions();
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browserName);
+        }
     }
     
     /**
@@ -72,73 +316,204 @@ public class DriverManager {
      * @throws IllegalStateException if driver not initialized
      */
     public static WebDriver getDriver() {
-        WebDriver driver = driverThreadLocal.get();
-        if (driver == null) {
+        return getContext().getDriver();
+    }
+    
+    /**
+     * Get the test context bound to this thread
+     * 
+     * @return TestContext
+     * @throws IllegalStateException if no context is bound
+     */
+    public static TestContext getContext() {
+        TestContext context = contextThreadLocal.get();
+        if (context == null) {
             throw new IllegalStateException("WebDriver not initialized. Call setDriver() first.");
         }
-        return driver;
+        return context;
+    }
+    
+    /**
+     * Bind a test context to the current thread
+     * 
+     * @param context Context to bind, or null to unbind
+     * @return Previously bound context, or null
+     */
+    static TestContext bindContext(TestContext context) {
+        TestContext previous = contextThreadLocal.get();
+        if (context == null) {
+            contextThreadLocal.remove();
+            ThreadContext.removeAll(LOG_CONTEXT_KEYS);
+        } else {
+            contextThreadLocal.set(context);
+            ThreadContext.put("test", context.getTestName());
+            ThreadContext.put("browser", context.getBrowserName());
+            ThreadContext.put("session", context.getSessionId());
+        }
+        return previous;
     }
     
     /**
      * Quit the current WebDriver instance and remove from ThreadLocal
      */
     public static void quitDriver() {
-        WebDriver driver = driverThreadLocal.get();
-        if (driver != null) {
-            driver.quit();
-            driverThreadLocal.remove();
+        TestContext context = bindContext(null);
+        if (context != null) {
+            String killReason = context.getKillReason();
+            if (killReason != null) {
+                log.warn("Browser of " + context.getTestName() + " was killed during the test: " + killReason);
+            }
+            closeContext(context, killReason != null ? "browser killed, " + killReason : "quit");
+        }
+    }
+    
+    /**
+     * Quit the driver of a test context and release its browser session slot
+     * 
+     * @param context Context to close
+     */
+    public static void closeContext(TestContext context) {
+        closeContext(context, "quit");
+    }
+    
+    /**
+     * Quit the driver of a test context and release its browser session slot
+     * 
+     * @param context Context to close
+     * @param reason Why the context is closed, reported to code still using it
+     */
+    public static void closeContext(TestContext context, String reason) {
+        if (!liveContexts.remove(context)) {
+            return;
+        }
+        context.setCloseReason(reason);
+        try {
+            context.runCloseHooks();
+            context.getDriver().quit();
+        } finally {
+            context.markClosed();
+            context.runQuitHooks();
+            slotsFor(context.getBrowserName()).release();
         }
     }
     
+    /**
+     * Close contexts that were never quit, e.g. after a setup failure skipped teardown
+     * 
+     * @return Number of leaked contexts that were closed
+     */
+    public static int closeLeakedContexts() {
+        List<TestContext> leaked = new ArrayList<>(liveContexts);
+        for (TestContext context : leaked) {
+            long ageSeconds = (System.currentTimeMillis() - context.getCreatedAt()) / 1000;
+            log.warn("Leaked test context detected: " + context + ", open for " + ageSeconds + "s");
+            closeContext(context, "leaked");
+        }
+        return leaked.size();
+    }
+    
     /**
      * Check if WebDriver is initialized for current thread
      * 
      * @return true if driver exists, false otherwise
      */
     public static boolean isDriverInitialized() {
-        return driverThreadLocal.get() != null;
+        TestContext context = contextThreadLocal.get();
+        return context != null && !context.isClosed();
+    }
+    
+    /**
+     * Get the session pool of a browser
+     */
+    private static ConcurrencyController slotsFor(String browserName) {
+        return sessionSlots.computeIfAbsent(browserName, browser -> ConcurrencyController.create(config,
+                config.getBrowserMatrix().isEmpty() ? null : browser));
+    }
+    
+    /**
+     * Block until a browser session slot is available
+     * 
+     * @throws IllegalStateException if no slot frees up within session.slot.timeout
+     */
+    private static void acquireSessionSlot(ConcurrencyController slots) {
+        int timeoutSeconds = config.getSessionSlotTimeout();
+        try {
+            if (!slots.acquire(timeoutSeconds * 1000L)) {
+                throw new IllegalStateException("No browser session slot free after " + timeoutSeconds + " seconds ("
+                        + slots.describe() + "); sessions are leaking or tests are hanging");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session slot", e);
+        }
     }
     
     /**
      * Create Chrome WebDriver with options
      */
-    private static WebDriver createChromeDriver() {
+    private static WebDriver createChromeDriver(SessionLaunch launch) {
         WebDriverManager.chromedriver().setup();
+        ChromeOptions options = createChromeOptions(launch);
+        
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        launch.service = service;
+        return new ChromeDriver(service, options);
+    }
+    
+    /**
+     * Build Chrome options from config
+     */
+    private static ChromeOptions createChromeOptions(SessionLaunch launch) {
         ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy()));
         
-        if (config.isHeadless()) {
+        if (config.isCiThroughputProfile()) {
+            applyCiThroughputProfile(options);
+        } else if (config.isHeadless()) {
             options.addArguments("--headless=new");
         }
+        applyUserDataDir(options, "chrome", launch);
         
         // Add Chrome options from config
-        String chromeOptions = config.getProperty("chrome.options");
-        if (chromeOptions != null && !chromeOptions.isEmpty()) {
-            String[] optionArray = chromeOptions.split(",");
-            for (String option : optionArray) {
-                options.addArguments(option.trim());
-            }
-        }
+        addChromiumArguments(options, config.getProperty("chrome.options"));
         
         // Additional Chrome options for stability
+        // (resource blocking is done per test by NetworkFilter, not by disabling images/JavaScript)
         options.addArguments("--disable-blink-features=AutomationControlled");
         options.addArguments("--disable-extensions");
         options.addArguments("--disable-plugins");
-        options.addArguments("--disable-images");
-        options.addArguments("--disable-javascript");
         options.setExperimentalOption("useAutomationExtension", false);
         options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        
-        return new ChromeDriver(options);
+        return options;
     }
     
     /**
      * Create Firefox WebDriver with options
      */
-    private static WebDriver createFirefoxDriver() {
+    private static WebDriver createFirefoxDriver(SessionLaunch launch) {
         WebDriverManager.firefoxdriver().setup();
+        FirefoxOptions options = createFirefoxOptions();
+        Path profileDir = createProfileDir("firefox", launch);
+        if (profileDir != null) {
+            options.addArguments("-profile", profileDir.toString());
+        }
+        
+        GeckoDriverService service = GeckoDriverService.createDefaultService();
+        launch.service = service;
+        return new FirefoxDriver(service, options);
+    }
+    
+    /**
+     * Build Firefox options from config
+     */
+    private static FirefoxOptions createFirefoxOptions() {
         FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy()));
         
-        if (config.isHeadless()) {
+        if (config.isCiThroughputProfile()) {
+            int[] viewport = config.getViewportSize();
+            options.addArguments("--headless", "--width=" + viewport[0], "--height=" + viewport[1]);
+        } else if (config.isHeadless()) {
             options.addArguments("--headless");
         }
         
@@ -150,31 +525,115 @@ public class DriverManager {
                 options.addArguments(option.trim());
             }
         }
-        
-        return new FirefoxDriver(options);
+        return options;
     }
     
     /**
      * Create Edge WebDriver with options
      */
-    private static WebDriver createEdgeDriver() {
+    private static WebDriver createEdgeDriver(SessionLaunch launch) {
         WebDriverManager.edgedriver().setup();
+        EdgeOptions options = createEdgeOptions(launch);
+        
+        EdgeDriverService service = EdgeDriverService.createDefaultService();
+        launch.service = service;
+        return new EdgeDriver(service, options);
+    }
+    
+    /**
+     * Build Edge options from config
+     */
+    private static EdgeOptions createEdgeOptions(SessionLaunch launch) {
         EdgeOptions options = new EdgeOptions();
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy()));
         
-        if (config.isHeadless()) {
+        if (config.isCiThroughputProfile()) {
+            applyCiThroughputProfile(options);
+        } else if (config.isHeadless()) {
             options.addArguments("--headless=new");
         }
+        applyUserDataDir(options, "edge", launch);
         
         // Add Edge options from config
-        String edgeOptions = config.getProperty("edge.options");
-        if (edgeOptions != null && !edgeOptions.isEmpty()) {
-            String[] optionArray = edgeOptions.split(",");
-            for (String option : optionArray) {
-                options.addArguments(option.trim());
-            }
+        addChromiumArguments(options, config.getProperty("edge.options"));
+        return options;
+    }
+    
+    /**
+     * Apply the ci-throughput profile to Chrome or Edge options: new headless mode,
+     * fixed viewport, no background throttling or first-run work
+     */
+    private static void applyCiThroughputProfile(ChromiumOptions<?> options) {
+        int[] viewport = config.getViewportSize();
+        options.addArguments(BrowserProfiles.ciThroughputChromiumArguments(viewport[0], viewport[1]));
+    }
+    
+    /**
+     * Point Chrome or Edge at the user-data dir of the session, if it has its own
+     */
+    private static void applyUserDataDir(ChromiumOptions<?> options, String browserName, SessionLaunch launch) {
+        Path profileDir = createProfileDir(browserName, launch);
+        if (profileDir != null) {
+            options.addArguments("--user-data-dir=" + profileDir);
+        }
+    }
+    
+    /**
+     * Create the user-data dir of a local session: a clone of the pre-seeded profile
+     * template, or an empty tmpfs dir under ci-throughput. The dir is deleted after quit.
+     * 
+     * @return Profile directory, or null to let the driver create a profile
+     */
+    private static Path createProfileDir(String browserName, SessionLaunch launch) {
+        if (config.isGridEnabled()) {
+            // The browser runs on a grid node; its profile dir is managed there
+            return null;
+        }
+        if (launch.templateDir != null) {
+            return launch.templateDir;
         }
         
-        return new EdgeDriver(options);
+        Path profileDir;
+        if (config.isProfileTemplateEnabled()) {
+            profileDir = ProfileTemplates.cloneTemplate(browserName, DriverManager::buildProfileTemplate);
+        } else if (config.isCiThroughputProfile() && isChromium(browserName)) {
+            profileDir = BrowserProfiles.createTempProfileDir(browserName + "-profile-");
+        } else {
+            return null;
+        }
+        launch.afterQuit.add(() -> BrowserProfiles.deleteQuietly(profileDir));
+        return profileDir;
+    }
+    
+    /**
+     * Start the browser once on an empty template dir and quit it, leaving an initialized profile
+     */
+    private static void buildProfileTemplate(String browserName, Path templateDir) {
+        SessionLaunch launch = new SessionLaunch();
+        launch.templateDir = templateDir;
+        WebDriver driver = createLocalDriver(browserName, launch);
+        try {
+            driver.get("about:blank");
+        } finally {
+            driver.quit();
+            launch.afterQuit.forEach(Runnable::run);
+        }
+    }
+    
+    /**
+     * Add comma separated command line switches from config to Chrome or Edge options
+     */
+    private static void addChromiumArguments(ChromiumOptions<?> options, String arguments) {
+        if (arguments == null || arguments.isEmpty()) {
+            return;
+        }
+        for (String argument : arguments.split(",")) {
+            // The new headless mode renders without a GPU process; --disable-gpu only slows it down
+            if (config.isCiThroughputProfile() && "--disable-gpu".equals(argument.trim())) {
+                continue;
+            }
+            options.addArguments(argument.trim());
+        }
     }
     
     /**
@@ -184,7 +643,7 @@ public class DriverManager {
         if (!System.getProperty("os.name").toLowerCase().contains("mac")) {
             throw new UnsupportedOperationException("Safari is only supported on macOS");
         }
-        return new SafariDriver();
+        return new SafariDriver(new SafariOptions());
     }
     
     /**
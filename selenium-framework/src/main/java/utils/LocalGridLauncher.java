@@ -0,0 +1,135 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts a Selenium standalone server (router, distributor and node in one) inside
+ * the test JVM, so tests get grid slot queueing and several browsers in parallel
+ * without external infrastructure. Requires selenium-grid on the test classpath
+ * (mvn test -Plocal-grid); the server lives until the JVM exits.
+ *
+ * @author Brian LaTorraca
+ */
+public class LocalGridLauncher {
+
+    private static final Logger log = LogManager.getLogger(LocalGridLauncher.class);
+
+    private static final String GRID_MAIN = "org.openqa.selenium.grid.Main";
+    private static String gridUrl;
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private LocalGridLauncher() {}
+
+    /**
+     * Start the standalone server once per JVM
+     *
+     * @param maxSessions Concurrent sessions the node offers
+     * @param sessionRequestTimeoutSeconds Time a new session request may wait in the queue for a free slot
+     * @param startupTimeoutSeconds Time to wait for the server to report ready
+     * @return WebDriver URL of the server
+     */
+    public static synchronized String start(int maxSessions, int sessionRequestTimeoutSeconds,
+                                            int startupTimeoutSeconds) {
+        if (gridUrl != null) {
+            return gridUrl;
+        }
+
+        Class<?> main;
+        try {
+            main = Class.forName(GRID_MAIN);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Selenium Grid is not on the classpath; run with -Plocal-grid", e);
+        }
+
+        int port = findFreePort();
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "standalone",
+                "--port", String.valueOf(port),
+                "--max-sessions", String.valueOf(maxSessions),
+                "--session-request-timeout", String.valueOf(sessionRequestTimeoutSeconds),
+                // The node set never changes, so a request no node supports would only wait for the timeout
+                "--reject-unsupported-caps", "true",
+                "--selenium-manager", "true"));
+        if (maxSessions > Runtime.getRuntime().availableProcessors()) {
+            args.addAll(Arrays.asList("--override-max-sessions", "true"));
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            main.getMethod("main", String[].class).invoke(null, (Object) args.toArray(new String[0]));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Unable to launch " + GRID_MAIN, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Local Selenium standalone failed to start", e.getCause());
+        }
+
+        waitUntilReady(port, startupTimeoutSeconds);
+        gridUrl = "http://localhost:" + port + "/wd/hub";
+        log.info("Local Selenium standalone ready at " + gridUrl + " with " + maxSessions + " slots in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return gridUrl;
+    }
+
+    /**
+     * Poll the server status endpoint until it reports ready
+     */
+    private static void waitUntilReady(int port, int timeoutSeconds) {
+        long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
+        while (System.currentTimeMillis() < deadline) {
+            if (isReady(port)) {
+                return;
+            }
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for local Selenium standalone", e);
+            }
+        }
+        throw new IllegalStateException("Local Selenium standalone not ready after " + timeoutSeconds + " seconds");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isReady(int port) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/status")
+                    .openConnection();
+            connection.setConnectTimeout(1000);
+            connection.setReadTimeout(2000);
+            try (InputStream input = connection.getInputStream()) {
+                Map<String, Object> status = new Json().toType(
+                        new String(input.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                Map<String, Object> value = (Map<String, Object>) status.get("value");
+                return value != null && Boolean.TRUE.equals(value.get("ready"));
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port for local Selenium standalone", e);
+        }
+    }
+}
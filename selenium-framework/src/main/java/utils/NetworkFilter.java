@@ -0,0 +1,199 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-test network request blocking through the Chrome DevTools Protocol.
+ * Blocked requests fail inside the browser, so the application keeps running
+ * without the blocked analytics, fonts or images.
+ *
+ * @author Brian LaTorraca
+ */
+public class NetworkFilter {
+
+    private static final Logger log = LogManager.getLogger(NetworkFilter.class);
+
+    private static final Map<String, List<String>> CATEGORIES = new HashMap<>();
+
+    static {
+        CATEGORIES.put("analytics", Arrays.asList(
+                "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+                "*segment.io*", "*hotjar.com*", "*connect.facebook.net*", "*nr-data.net*", "*newrelic.com*"));
+        CATEGORIES.put("fonts", Arrays.asList(
+                "*.woff", "*.woff2", "*.ttf", "*.otf", "*fonts.googleapis.com*", "*fonts.gstatic.com*"));
+        CATEGORIES.put("images", Arrays.asList(
+                "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico"));
+        CATEGORIES.put("media", Arrays.asList(
+                "*.mp4", "*.webm", "*.mp3", "*.ogg"));
+    }
+
+    private static final Event<Map<String, Object>> LOADING_FINISHED = rawEvent("Network.loadingFinished");
+    private static final Event<Map<String, Object>> LOADING_FAILED = rawEvent("Network.loadingFailed");
+    private static final Event<Map<String, Object>> RESPONSE_RECEIVED = rawEvent("Network.responseReceived");
+
+    private final List<String> blockedPatterns;
+    private final Map<String, String> resourceTypes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> loadedBytesByType = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> loadedCountByType = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> blockedCountByType = new ConcurrentHashMap<>();
+    private final AtomicLong blockedRequests = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+
+    private NetworkFilter(List<String> blockedPatterns) {
+        this.blockedPatterns = blockedPatterns;
+    }
+
+    /**
+     * Resolve category names and URL patterns into CDP block patterns
+     *
+     * @param categories Category names (analytics, fonts, images, media)
+     * @param patterns Additional URL patterns with * wildcards
+     * @return Block patterns
+     */
+    public static List<String> resolvePatterns(Collection<String> categories, Collection<String> patterns) {
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String category : categories) {
+            List<String> categoryPatterns = CATEGORIES.get(category.trim().toLowerCase());
+            if (categoryPatterns == null) {
+                throw new IllegalArgumentException("Unknown network block category: " + category
+                        + ". Supported: " + CATEGORIES.keySet());
+            }
+            resolved.addAll(categoryPatterns);
+        }
+        for (String pattern : patterns) {
+            if (!pattern.trim().isEmpty()) {
+                resolved.add(pattern.trim());
+            }
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Install a network filter on the driver of a test context.
+     * Statistics are recorded into the context metrics when the context is closed.
+     *
+     * @param context Test context
+     * @param blockedPatterns URL patterns to block
+     * @return NetworkFilter, or null if nothing is blocked or the browser does not support DevTools blocking
+     */
+    public static NetworkFilter install(TestContext context, List<String> blockedPatterns) {
+        if (blockedPatterns.isEmpty()) {
+            return null;
+        }
+        WebDriver driver = context.getDriver();
+        if (!(driver instanceof HasDevTools)) {
+            log.info("Network filter not installed: browser has no DevTools support");
+            return null;
+        }
+
+        NetworkFilter filter = new NetworkFilter(blockedPatterns);
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+            devTools.addListener(RESPONSE_RECEIVED, filter::onResponseReceived);
+            devTools.addListener(LOADING_FINISHED, filter::onLoadingFinished);
+            devTools.addListener(LOADING_FAILED, filter::onLoadingFailed);
+            devTools.send(new Command<Void>("Network.enable", Collections.emptyMap()));
+            devTools.send(new Command<Void>("Network.setBlockedURLs",
+                    Collections.singletonMap("urls", blockedPatterns)));
+        } catch (DevToolsException | UnsupportedOperationException e) {
+            log.warn("Network filter not installed: " + e.getMessage());
+            return null;
+        }
+
+        context.onClose(() -> filter.report(context));
+        log.info("Network filter blocking " + blockedPatterns.size() + " URL patterns");
+        return filter;
+    }
+
+    public long getBlockedRequests() {
+        return blockedRequests.get();
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes.get();
+    }
+
+    /**
+     * Estimate bytes saved by blocking, using the average size of loaded
+     * resources of the same type (or of all resources when none was loaded)
+     *
+     * @return Estimated bytes saved
+     */
+    public long getEstimatedBytesSaved() {
+        long loadedCount = loadedCountByType.values().stream().mapToLong(AtomicLong::get).sum();
+        long overallAverage = loadedCount == 0 ? 0 : transferredBytes.get() / loadedCount;
+
+        long saved = 0;
+        for (Map.Entry<String, AtomicLong> blocked : blockedCountByType.entrySet()) {
+            AtomicLong count = loadedCountByType.get(blocked.getKey());
+            long average = count == null || count.get() == 0
+                    ? overallAverage
+                    : loadedBytesByType.get(blocked.getKey()).get() / count.get();
+            saved += blocked.getValue().get() * average;
+        }
+        return saved;
+    }
+
+    private void report(TestContext context) {
+        context.recordMetric("network.requests.blocked", getBlockedRequests());
+        context.recordMetric("network.bytes.transferred", getTransferredBytes());
+        context.recordMetric("network.bytes.saved.estimate", getEstimatedBytesSaved());
+        log.info("Network filter [" + context.getTestName() + "]: blocked " + getBlockedRequests()
+                + " requests, ~" + getEstimatedBytesSaved() / 1024 + " KB saved, "
+                + getTransferredBytes() / 1024 + " KB transferred");
+    }
+
+    private void onResponseReceived(Map<String, Object> params) {
+        Object type = params.get("type");
+        if (type != null) {
+            resourceTypes.put(String.valueOf(params.get("requestId")), String.valueOf(type));
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        String type = resourceTypes.getOrDefault(String.valueOf(params.get("requestId")), "Other");
+        long bytes = ((Number) params.getOrDefault("encodedDataLength", 0)).longValue();
+        transferredBytes.addAndGet(bytes);
+        loadedBytesByType.computeIfAbsent(type, t -> new AtomicLong()).addAndGet(bytes);
+        loadedCountByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void onLoadingFailed(Map<String, Object> params) {
+        if (params.get("blockedReason") == null) {
+            return;
+        }
+        String type = String.valueOf(params.getOrDefault("type", "Other"));
+        blockedRequests.incrementAndGet();
+        blockedCountByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static Event<Map<String, Object>> rawEvent(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkFilter" + blockedPatterns;
+    }
+}
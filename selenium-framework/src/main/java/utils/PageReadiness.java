@@ -0,0 +1,182 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.DevToolsException;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readiness detection for pages loaded with the EAGER or NONE page load strategy.
+ * A page is ready once the DOM is parsed, no fetch/XHR requests are in flight
+ * and neither the network nor the DOM changed for a configurable quiet period.
+ * DOM quiet is only required up to a cap, so pages that animate forever (clocks, carousels)
+ * are ready once the network has been idle that long.
+ *
+ * @author Brian LaTorraca
+ */
+public class PageReadiness {
+
+    private static final Logger log = LogManager.getLogger(PageReadiness.class);
+
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String TRACKER_SCRIPT = ScriptResources.load("/js/readiness-tracker.js");
+
+    // Polled every 100 ms, so it only reads the tracker state; null means the document has no tracker yet.
+    // A document tagged with the current navigation id and still at its URL is the page being left.
+    private static final String IS_READY_SCRIPT =
+            "var left = window.__readinessLeft;"
+            + "if (left && left.id === arguments[2] && left.url === document.URL) return false;"
+            + "var state = window.__readiness;"
+            + "if (!state) return null;"
+            + "var now = Date.now();"
+            + "return document.readyState !== 'loading' && state.pending === 0"
+            + " && now - state.lastNetwork >= arguments[0]"
+            + " && (now - state.lastDom >= arguments[0] || now - state.lastNetwork >= arguments[1]);";
+
+    private static final String LEAVE_DOCUMENT_SCRIPT =
+            "window.__readinessLeft = { id: arguments[0], url: document.URL };";
+
+    private static final AtomicLong navigationIds = new AtomicLong();
+
+    private static final String AJAX_IDLE_SCRIPT = TRACKER_SCRIPT + ScriptResources.load("/js/ajax-idle.js");
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private PageReadiness() {}
+
+    /**
+     * Install the readiness tracker so it runs before application scripts on every
+     * new document and sees requests started during page load.
+     * Browsers without DevTools get the tracker injected on first wait.
+     * Only sessions that wait on readiness or AJAX need it, see {@link #isTrackingRequired()}.
+     *
+     * @param driver WebDriver instance
+     */
+    public static void install(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+            devTools.send(new Command<Void>("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", TRACKER_SCRIPT)));
+        } catch (DevToolsException | UnsupportedOperationException e) {
+            log.warn("Readiness tracker not installed at document start: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check if readiness detection should replace waiting for document.readyState == complete
+     *
+     * @return true for EAGER and NONE page load strategies
+     */
+    public static boolean isEnabled() {
+        return !"normal".equals(config.getPageLoadStrategy());
+    }
+
+    /**
+     * Check if sessions should get the tracker at document start: readiness detection is on,
+     * or AJAX waits are configured to see requests started during page load
+     *
+     * @return true if the tracker should be installed
+     */
+    public static boolean isTrackingRequired() {
+        return isEnabled() || config.isAjaxTrackingEnabled();
+    }
+
+    /**
+     * Wait until the page is interactive and network/DOM activity has settled
+     *
+     * @param driver WebDriver instance
+     */
+    public static void waitUntilReady(WebDriver driver) {
+        waitUntilReady(driver, Duration.ofSeconds(config.getPageLoadTimeout()));
+    }
+
+    /**
+     * Wait until the page is interactive and network/DOM activity has settled
+     *
+     * @param driver WebDriver instance
+     * @param timeout Maximum time to wait
+     */
+    public static void waitUntilReady(WebDriver driver, Duration timeout) {
+        waitUntilReady(driver, timeout, 0);
+    }
+
+    /**
+     * Run a navigation (get, back, forward, refresh) and wait until the document it leads to is ready.
+     * With EAGER/NONE the navigation command can return before the new document commits, so the
+     * current document is tagged first and never counts as ready for this navigation.
+     *
+     * @param driver WebDriver instance
+     * @param navigation Navigation command
+     */
+    public static void navigate(WebDriver driver, Runnable navigation) {
+        long navigationId = navigationIds.incrementAndGet();
+        ((JavascriptExecutor) driver).executeScript(LEAVE_DOCUMENT_SCRIPT, navigationId);
+        navigation.run();
+        waitUntilReady(driver, Duration.ofSeconds(config.getPageLoadTimeout()), navigationId);
+    }
+
+    private static void waitUntilReady(WebDriver driver, Duration timeout, long navigationId) {
+        long quietMillis = config.getReadinessQuietMillis();
+        long domQuietMaxMillis = config.getReadinessDomQuietMaxMillis();
+        new WebDriverWait(driver, timeout, Duration.ofMillis(100))
+                .until(webDriver -> {
+                    JavascriptExecutor js = (JavascriptExecutor) webDriver;
+                    Object ready = js.executeScript(IS_READY_SCRIPT, quietMillis, domQuietMaxMillis, navigationId);
+                    if (ready == null) {
+                        // Not installed at document start (no DevTools, or navigated before install)
+                        js.executeScript(TRACKER_SCRIPT);
+                        return false;
+                    }
+                    return Boolean.TRUE.equals(ready);
+                });
+    }
+
+    /**
+     * Wait for AJAX activity to finish with asynchronous script calls.
+     * Works without jQuery and honours Angular/AngularJS/React stability where present.
+     *
+     * @param driver WebDriver instance
+     * @param timeout Maximum time to wait
+     * @throws TimeoutException if requests are still pending after the timeout
+     */
+    public static void waitForAjaxIdle(WebDriver driver, Duration timeout) {
+        // Each call resolves before the script timeout cuts it off; longer waits take several calls
+        long sliceMillis = config.getScriptTimeout() * 1000L - 250;
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        long remaining = timeout.toMillis();
+        do {
+            Object idle = ((JavascriptExecutor) driver).executeAsyncScript(AJAX_IDLE_SCRIPT,
+                    config.getAjaxQuietMillis(), Math.min(remaining, sliceMillis));
+            if (Boolean.TRUE.equals(idle)) {
+                return;
+            }
+            remaining = deadline - System.currentTimeMillis();
+        } while (remaining > 0);
+        throw new TimeoutException("AJAX requests still pending after " + timeout.getSeconds() + " seconds");
+    }
+
+    /**
+     * Get the tracker script source
+     *
+     * @return JavaScript source
+     */
+    static String getTrackerScript() {
+        return TRACKER_SCRIPT;
+    }
+}
@@ -0,0 +1,200 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kills driver and browser processes that outlive their test context.
+ * Every session's driver process tree is registered when the session starts;
+ * what is left of it is killed after quit, on a periodic sweep when the owning
+ * thread died without quitting, at suite end and from a JVM shutdown hook.
+ *
+ * @author Brian LaTorraca
+ */
+public class ProcessReaper {
+
+    private static final Logger log = LogManager.getLogger(ProcessReaper.class);
+
+    private static ProcessReaper instance;
+
+    // Known processes per session; browsers are reparented once their driver dies, so remember them early
+    private final Map<TestContext, Set<ProcessHandle>> processTrees = new ConcurrentHashMap<>();
+
+    private ProcessReaper() {}
+
+    /**
+     * Get the shared reaper, starting its periodic sweep and shutdown hook on first use
+     *
+     * @return ProcessReaper instance
+     */
+    public static synchronized ProcessReaper getInstance() {
+        if (instance == null) {
+            instance = new ProcessReaper();
+            instance.start(ConfigManager.getInstance().getReaperSweepIntervalMillis());
+        }
+        return instance;
+    }
+
+    /**
+     * Find the driver executable started by this JVM for a driver service
+     *
+     * @param service Running driver service
+     * @return Driver process, if found
+     */
+    public static Optional<ProcessHandle> findDriverProcess(DriverService service) {
+        String portArgument = "--port=" + service.getUrl().getPort();
+        return ProcessHandle.current().children()
+                .filter(process -> process.info().arguments()
+                        .map(arguments -> Arrays.asList(arguments).contains(portArgument))
+                        .orElseGet(() -> process.info().commandLine().orElse("").contains(portArgument)))
+                .findFirst();
+    }
+
+    /**
+     * Register the driver process tree of a test context; whatever is still running
+     * after the context's driver quits is killed
+     *
+     * @param context Test context
+     * @param driverProcess Driver process of the context
+     */
+    public void register(TestContext context, ProcessHandle driverProcess) {
+        Set<ProcessHandle> tree = ConcurrentHashMap.newKeySet();
+        tree.add(driverProcess);
+        processTrees.put(context, tree);
+        refresh(tree);
+        context.onQuit(() -> release(context));
+    }
+
+    /**
+     * Kill the remaining processes of a context whose driver has quit and forget them
+     *
+     * @param context Test context
+     */
+    public void release(TestContext context) {
+        Set<ProcessHandle> tree = processTrees.remove(context);
+        if (tree != null) {
+            int killed = kill(tree);
+            if (killed > 0) {
+                log.warn("Killed " + killed + " browser process(es) left behind by " + context.getTestName());
+            }
+        }
+    }
+
+    /**
+     * Close contexts whose owning thread ended without quitting the driver and kill their processes
+     *
+     * @return Number of orphaned contexts reaped
+     */
+    public int sweep() {
+        int reaped = 0;
+        for (Map.Entry<TestContext, Set<ProcessHandle>> entry : new ArrayList<>(processTrees.entrySet())) {
+            TestContext context = entry.getKey();
+            if (context.isClosed()) {
+                release(context);
+                reaped++;
+            } else if (!context.getOwnerThread().isAlive()) {
+                log.warn("Reaping orphaned browser session: " + context);
+                DriverManager.closeContext(context, "owner thread ended without quitting the driver");
+                release(context);
+                reaped++;
+            } else {
+                refresh(entry.getValue());
+            }
+        }
+        return reaped;
+    }
+
+    /**
+     * Kill every registered process, regardless of context state
+     *
+     * @return Number of processes killed
+     */
+    public int reapAll() {
+        int killed = 0;
+        for (TestContext context : new ArrayList<>(processTrees.keySet())) {
+            Set<ProcessHandle> tree = processTrees.remove(context);
+            if (tree != null) {
+                killed += kill(tree);
+            }
+        }
+        return killed;
+    }
+
+    private void refresh(Set<ProcessHandle> tree) {
+        for (ProcessHandle process : new ArrayList<>(tree)) {
+            process.descendants().forEach(tree::add);
+        }
+    }
+
+    private void start(long sweepIntervalMillis) {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "process-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.warn("Process reaper sweep failed: " + e.getMessage());
+            }
+        }, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            int killed = reapAll();
+            if (killed > 0) {
+                log.warn("Process reaper killed " + killed + " browser process(es) at JVM shutdown");
+            }
+        }, "process-reaper-shutdown"));
+    }
+
+    /**
+     * Terminate processes, children before parents, forcibly if they do not exit in time
+     *
+     * @param processes Processes to kill
+     * @return Number of processes that were still alive
+     */
+    static int kill(Collection<ProcessHandle> processes) {
+        // Pids are reused and not ordered by ancestry; walk the live tree instead
+        List<ProcessHandle> alive = new ArrayList<>();
+        Set<ProcessHandle> visited = new HashSet<>();
+        for (ProcessHandle process : processes) {
+            addChildrenFirst(process, visited, alive);
+        }
+        alive.forEach(ProcessHandle::destroy);
+
+        long deadline = System.currentTimeMillis() + 2000;
+        for (ProcessHandle process : alive) {
+            try {
+                process.onExit().get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                process.destroyForcibly();
+            }
+        }
+        return alive.size();
+    }
+
+    private static void addChildrenFirst(ProcessHandle process, Set<ProcessHandle> visited,
+                                         List<ProcessHandle> ordered) {
+        if (!process.isAlive() || !visited.add(process)) {
+            return;
+        }
+        process.children().forEach(child -> addChildrenFirst(child, visited, ordered));
+        ordered.add(process);
+    }
+}
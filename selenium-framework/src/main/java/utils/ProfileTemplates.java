@@ -0,0 +1,162 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Pre-seeded browser user-data directories. A template profile is built once per
+ * browser by starting the browser on it, so first-run work (profile database,
+ * component setup, cache priming) is done before the first test; every session
+ * then gets a copy of the template instead of an empty directory.
+ *
+ * @author Brian LaTorraca
+ */
+public class ProfileTemplates {
+
+    private static final Logger log = LogManager.getLogger(ProfileTemplates.class);
+
+    // Lock files of a running browser; a clone must not inherit them
+    private static final List<String> LOCK_FILES = Arrays.asList(
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lock", ".parentlock");
+
+    private static final Map<String, Path> templates = new ConcurrentHashMap<>();
+
+    // Cleared once cp is found missing or unable to copy, then the JDK copy is used
+    private static volatile boolean nativeCopy = !System.getProperty("os.name").toLowerCase().contains("win");
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ProfileTemplates::deleteAll, "profile-template-cleanup"));
+    }
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ProfileTemplates() {}
+
+    /**
+     * Create a user-data directory for a new session as a copy of the browser's template,
+     * building the template on first use. The copy lives on tmpfs when available.
+     *
+     * @param browserName Browser the profile is for
+     * @param builder Starts and quits the browser on the given empty template directory
+     * @return New profile directory; the caller deletes it after the browser has quit
+     */
+    public static Path cloneTemplate(String browserName, BiConsumer<String, Path> builder) {
+        Path template = getTemplate(browserName, builder);
+        Path clone = BrowserProfiles.createTempProfileDir(browserName + "-profile-");
+        try {
+            copyTree(template, clone);
+        } catch (IOException e) {
+            BrowserProfiles.deleteQuietly(clone);
+            throw new RuntimeException("Unable to clone " + browserName + " profile template " + template, e);
+        }
+        return clone;
+    }
+
+    /**
+     * Delete all template directories
+     */
+    public static synchronized void deleteAll() {
+        templates.values().forEach(BrowserProfiles::deleteQuietly);
+        templates.clear();
+    }
+
+    private static synchronized Path getTemplate(String browserName, BiConsumer<String, Path> builder) {
+        Path template = templates.get(browserName);
+        if (template != null) {
+            return template;
+        }
+
+        long start = System.currentTimeMillis();
+        template = BrowserProfiles.createTempProfileDir(browserName + "-template-");
+        try {
+            builder.accept(browserName, template);
+            for (String lockFile : LOCK_FILES) {
+                Files.deleteIfExists(template.resolve(lockFile));
+            }
+        } catch (IOException | RuntimeException e) {
+            BrowserProfiles.deleteQuietly(template);
+            throw new RuntimeException("Unable to build " + browserName + " profile template", e);
+        }
+        templates.put(browserName, template);
+        log.info("Built " + browserName + " profile template " + template + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return template;
+    }
+
+    /**
+     * Copy a directory tree. cp shares data blocks (reflink) on filesystems that support it
+     * and falls back to a regular copy elsewhere; the JDK copy is used where cp is unavailable.
+     *
+     * @param source Directory to copy
+     * @param target Existing empty directory
+     * @throws IOException if the copy fails
+     */
+    static void copyTree(Path source, Path target) throws IOException {
+        if (nativeCopy && nativeCopyTree(source, target)) {
+            return;
+        }
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!LOCK_FILES.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file).toString()),
+                            StandardCopyOption.COPY_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean nativeCopyTree(Path source, Path target) {
+        boolean mac = System.getProperty("os.name").toLowerCase().contains("mac");
+        // macOS cp -c clones files on APFS; GNU cp --reflink=auto on btrfs/xfs
+        List<String> command = mac
+                ? Arrays.asList("cp", "-c", "-R", source + "/.", target.toString())
+                : Arrays.asList("cp", "-a", "--reflink=auto", source + "/.", target.toString());
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                return true;
+            }
+            process.destroyForcibly();
+        } catch (IOException e) {
+            // No usable cp
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Native profile copy failed, using JDK copy: " + String.join(" ", command));
+        nativeCopy = false;
+        BrowserProfiles.deleteQuietly(target);
+        try {
+            Files.createDirectories(target);
+        } catch (IOException e) {
+            // Reported by the JDK copy
+        }
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.ConnectException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates RemoteWebDriver sessions on a Selenium Grid or standalone server.
+ * All sessions share one JDK HTTP client, so keep-alive connections to the grid
+ * are pooled (HTTP/2 where the server supports it) instead of one client per session.
+ *
+ * @author Brian LaTorraca
+ */
+public class RemoteDriverFactory {
+
+    private static final Logger log = LogManager.getLogger(RemoteDriverFactory.class);
+
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static HttpClient sharedClient;
+
+    // Grid answers that mean "busy, try again later"; anything else (bad capabilities, driver crash) fails fast
+    private static final List<String> RETRYABLE_MESSAGES = List.of(
+            "new session request timed out", "session request queue", "timed out waiting for a node",
+            "no free slot", "no available slot", "no slots available", "all slots are busy");
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private RemoteDriverFactory() {}
+
+    /**
+     * Start a remote session, retrying while the grid is unreachable or has no free slot
+     *
+     * @param capabilities Browser options built for the local driver of the same browser
+     * @return Remote WebDriver, augmented with DevTools where the grid exposes CDP
+     * @throws SessionNotCreatedException if all attempts fail, or at once if the grid rejects the request
+     */
+    public static WebDriver create(Capabilities capabilities) {
+        int attempts = config.getGridSessionRetries() + 1;
+        WebDriverException lastFailure = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                HttpCommandExecutor executor = new HttpCommandExecutor(
+                        Collections.emptyMap(), clientConfig(), clientConfig -> getSharedClient());
+                return augment(new RemoteWebDriver(executor, capabilities));
+            } catch (SessionNotCreatedException | UnreachableBrowserException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                lastFailure = e;
+                log.warn("Remote session attempt " + attempt + "/" + attempts + " failed: "
+                        + e.getMessage().split("\n")[0]);
+                if (attempt < attempts) {
+                    sleep(config.getGridSessionRetryBackoffMillis() * attempt);
+                }
+            }
+        }
+        throw new SessionNotCreatedException("Unable to create remote session on " + config.getGridHubUrl()
+                + " after " + attempts + " attempts", lastFailure);
+    }
+
+    /**
+     * Close the shared HTTP client; a new one is created if another session is started
+     */
+    public static synchronized void shutdown() {
+        if (sharedClient != null) {
+            ((SharedHttpClient) sharedClient).delegate.close();
+            sharedClient = null;
+        }
+    }
+
+    /**
+     * Whether a failed session request is worth repeating: the hub could not be reached,
+     * or it timed out the request in its queue / had no free slot for it
+     */
+    private static boolean isRetryable(WebDriverException e) {
+        if (e instanceof UnreachableBrowserException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnreachableBrowserException || cause instanceof ConnectException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null) {
+                String lower = message.toLowerCase(Locale.ROOT);
+                if (RETRYABLE_MESSAGES.stream().anyMatch(lower::contains)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ClientConfig clientConfig() {
+        try {
+            return ClientConfig.defaultConfig()
+                    .baseUrl(new URL(config.getGridHubUrl()))
+                    .connectionTimeout(Duration.ofSeconds(config.getGridConnectTimeout()))
+                    .readTimeout(Duration.ofSeconds(config.getGridReadTimeout()))
+                    .version(config.getGridHttpVersion());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid grid.hub.url: " + config.getGridHubUrl(), e);
+        }
+    }
+
+    private static synchronized HttpClient getSharedClient() {
+        if (sharedClient == null) {
+            sharedClient = new SharedHttpClient(HttpClient.Factory.create("jdk-http-client").createClient(clientConfig()));
+        }
+        return sharedClient;
+    }
+
+    private static WebDriver augment(RemoteWebDriver driver) {
+        try {
+            return new Augmenter().augment(driver);
+        } catch (RuntimeException e) {
+            log.warn("Remote session without DevTools support: " + e.getMessage());
+            return driver;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry remote session", e);
+        }
+    }
+
+    /**
+     * HTTP client shared by all sessions. HttpCommandExecutor closes its client on quit,
+     * so close() is ignored here and the pool lives until shutdown().
+     */
+    private static class SharedHttpClient implements HttpClient {
+        private final HttpClient delegate;
+
+        SharedHttpClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared by all sessions; closed by RemoteDriverFactory.shutdown()
+        }
+    }
+}
@@ -2,6 +2,8 @@ package utils;
 
 import config.ConfigManager;
 import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
@@ -19,6 +21,8 @@ import java.time.format.DateTimeFormatter;
  */
 public class ScreenshotUtils {
     
+    private static final Logger log = LogManager.getLogger(ScreenshotUtils.class);
+    
     private static final ConfigManager config = ConfigManager.getInstance();
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     
@@ -42,11 +46,11 @@ public class ScreenshotUtils {
             destFile.getParentFile().mkdirs(); // Create directories if they don't exist
             FileUtils.copyFile(sourceFile, destFile);
             
-            System.out.println("Screenshot saved: " + filePath);
+            log.info("Screenshot saved: " + filePath);
             return filePath;
             
         } catch (IOException e) {
-            System.err.println("Failed to take screenshot: " + e.getMessage());
+            log.warn("Failed to take screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -70,11 +74,11 @@ public class ScreenshotUtils {
             destFile.getParentFile().mkdirs();
             FileUtils.copyFile(sourceFile, destFile);
             
-            System.out.println("Element screenshot saved: " + filePath);
+            log.info("Element screenshot saved: " + filePath);
             return filePath;
             
         } catch (IOException e) {
-            System.err.println("Failed to take element screenshot: " + e.getMessage());
+            log.warn("Failed to take element screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -90,7 +94,7 @@ public class ScreenshotUtils {
             TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
             return takesScreenshot.getScreenshotAs(OutputType.BASE64);
         } catch (Exception e) {
-            System.err.println("Failed to take Base64 screenshot: " + e.getMessage());
+            log.warn("Failed to take Base64 screenshot: " + e.getMessage());
             return null;
         }
     }
@@ -0,0 +1,35 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads JavaScript injected into the browser from classpath resources under /js
+ *
+ * @author Brian LaTorraca
+ */
+public class ScriptResources {
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ScriptResources() {}
+
+    /**
+     * Load a script resource
+     *
+     * @param resource Resource path, e.g. /js/actionable.js
+     * @return JavaScript source
+     */
+    public static String load(String resource) {
+        try (InputStream input = ScriptResources.class.getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new RuntimeException("Unable to find script resource " + resource);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading script resource " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * One Chromium browser process shared by many tests. Each test gets its own
+ * incognito-like browser context (separate cookies, storage and cache) created
+ * through CDP Target.createBrowserContext, and its own lightweight driver session
+ * attached to the shared browser through debuggerAddress and bound to the
+ * context's page.
+ *
+ * @author Brian LaTorraca
+ */
+public class SharedBrowser {
+
+    private static final Logger log = LogManager.getLogger(SharedBrowser.class);
+
+    private static final Map<String, SharedBrowser> browsers = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SharedBrowser::closeAll, "shared-browser-shutdown"));
+    }
+
+    private final String browserName;
+    private final WebDriver hostDriver;
+    private final DevTools hostDevTools;
+    private final String debuggerAddress;
+    private final List<Runnable> afterQuit;
+
+    /**
+     * Browser context of one test inside the shared browser
+     */
+    public static class IsolatedContext {
+        public final String browserContextId;
+        public final String targetId;
+
+        IsolatedContext(String browserContextId, String targetId) {
+            this.browserContextId = browserContextId;
+            this.targetId = targetId;
+        }
+    }
+
+    private SharedBrowser(String browserName, WebDriver hostDriver, List<Runnable> afterQuit) {
+        this.browserName = browserName;
+        this.hostDriver = hostDriver;
+        this.afterQuit = afterQuit;
+        this.debuggerAddress = readDebuggerAddress(browserName, hostDriver);
+        this.hostDevTools = ((HasDevTools) hostDriver).getDevTools();
+        hostDevTools.createSessionIfThereIsNotOne(hostDriver.getWindowHandle());
+    }
+
+    /**
+     * Get the shared browser of a browser name, starting it on first use
+     *
+     * @param browserName chrome or edge
+     * @param hostFactory Starts the host driver session that owns the browser process,
+     *                    collecting cleanup actions to run after it has quit
+     * @return SharedBrowser
+     */
+    public static SharedBrowser get(String browserName, Function<List<Runnable>, WebDriver> hostFactory) {
+        return browsers.computeIfAbsent(browserName, name -> {
+            long start = System.currentTimeMillis();
+            List<Runnable> afterQuit = new ArrayList<>();
+            SharedBrowser browser = new SharedBrowser(name, hostFactory.apply(afterQuit), afterQuit);
+            log.info("Shared " + name + " browser started at " + browser.debuggerAddress + " in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return browser;
+        });
+    }
+
+    /**
+     * Get host:port of the shared browser's DevTools endpoint, for attaching driver sessions
+     *
+     * @return Debugger address
+     */
+    public String getDebuggerAddress() {
+        return debuggerAddress;
+    }
+
+    /**
+     * Create a fresh browser context with one blank page
+     *
+     * @param viewport Page width and height, or null for the browser default
+     * @return Isolated context; its target id is the window handle of the page
+     */
+    public synchronized IsolatedContext createContext(int[] viewport) {
+        Map<String, Object> contextParams = new HashMap<>();
+        contextParams.put("disposeOnDetach", false);
+        String browserContextId = (String) hostDevTools.send(rawCommand("Target.createBrowserContext", contextParams))
+                .get("browserContextId");
+
+        Map<String, Object> targetParams = new HashMap<>();
+        targetParams.put("url", "about:blank");
+        targetParams.put("browserContextId", browserContextId);
+        if (viewport != null) {
+            targetParams.put("width", viewport[0]);
+            targetParams.put("height", viewport[1]);
+        }
+        String targetId = (String) hostDevTools.send(rawCommand("Target.createTarget", targetParams)).get("targetId");
+        return new IsolatedContext(browserContextId, targetId);
+    }
+
+    /**
+     * Dispose a browser context, closing its pages and discarding its cookies and storage
+     *
+     * @param context Context to dispose
+     */
+    public synchronized void disposeContext(IsolatedContext context) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("browserContextId", context.browserContextId);
+        try {
+            hostDevTools.send(new Command<Void>("Target.disposeBrowserContext", params));
+        } catch (RuntimeException e) {
+            log.warn("Failed to dispose browser context " + context.browserContextId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quit the shared browser of a browser name, e.g. after it crashed; the next get() starts a new one
+     *
+     * @param browserName Browser name
+     */
+    public static void close(String browserName) {
+        SharedBrowser browser = browsers.remove(browserName);
+        if (browser != null) {
+            browser.quit();
+        }
+    }
+
+    /**
+     * Quit a shared browser only if it is still the current one of its name; a concurrent
+     * caller that saw the same failure may already have replaced it
+     *
+     * @param browserName Browser name
+     * @param failed Browser instance that failed
+     * @return true if the failed instance was closed here
+     */
+    public static boolean closeIfCurrent(String browserName, SharedBrowser failed) {
+        if (!browsers.remove(browserName, failed)) {
+            return false;
+        }
+        failed.quit();
+        return true;
+    }
+
+    private void quit() {
+        try {
+            hostDevTools.close();
+            hostDriver.quit();
+        } catch (RuntimeException e) {
+            log.warn("Failed to quit shared " + browserName + " browser: " + e.getMessage());
+        }
+        afterQuit.forEach(Runnable::run);
+    }
+
+    /**
+     * Quit all shared browsers
+     */
+    public static void closeAll() {
+        new ArrayList<>(browsers.keySet()).forEach(SharedBrowser::close);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String readDebuggerAddress(String browserName, WebDriver driver) {
+        String optionsKey = "edge".equals(browserName) ? "ms:edgeOptions" : "goog:chromeOptions";
+        Object options = ((HasCapabilities) driver).getCapabilities().getCapability(optionsKey);
+        Object address = options instanceof Map ? ((Map<String, Object>) options).get("debuggerAddress") : null;
+        if (address == null) {
+            throw new IllegalStateException("Browser " + browserName + " did not report a debuggerAddress");
+        }
+        return address.toString();
+    }
+
+    private static Command<Map<String, Object>> rawCommand(String method, Map<String, Object> params) {
+        return new Command<>(method, params, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,237 @@
+package utils;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Explicit per-test context carrying the driver, configuration and metrics.
+ * Pass it to page objects and executor tasks instead of relying on thread-bound state.
+ *
+ * @author Brian LaTorraca
+ */
+public class TestContext {
+
+    private static final Logger log = LogManager.getLogger(TestContext.class);
+
+    private final String testName;
+    private final String browserName;
+    private final String sessionId;
+    private final WebDriver driver;
+    private final ConfigManager config;
+    private final Map<String, Long> metrics = new ConcurrentHashMap<>();
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
+    private final List<Runnable> quitHooks = new CopyOnWriteArrayList<>();
+    private final Thread ownerThread;
+    private final long createdAt;
+    private volatile boolean closed;
+    private volatile String closeReason;
+    private volatile String killReason;
+
+    /**
+     * Constructor for TestContext
+     *
+     * @param testName Name of the test owning this context
+     * @param browserName Browser the driver was started for
+     * @param sessionId WebDriver session id, or empty if the driver has none
+     * @param driver WebDriver instance
+     * @param config Configuration
+     */
+    TestContext(String testName, String browserName, String sessionId, WebDriver driver, ConfigManager config) {
+        this.testName = testName;
+        this.browserName = browserName;
+        this.sessionId = sessionId;
+        this.driver = driver;
+        this.config = config;
+        this.ownerThread = Thread.currentThread();
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the WebDriver of this context
+     *
+     * @return WebDriver instance
+     * @throws IllegalStateException if the context has been closed
+     */
+    public WebDriver getDriver() {
+        if (closed) {
+            throw new IllegalStateException("Test context for '" + testName + "' is already closed ("
+                    + closeReason + ")");
+        }
+        return driver;
+    }
+
+    public ConfigManager getConfig() {
+        return config;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Thread getOwnerThread() {
+        return ownerThread;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void markClosed() {
+        closed = true;
+    }
+
+    void setCloseReason(String closeReason) {
+        this.closeReason = closeReason;
+    }
+
+    /**
+     * Record that the session's browser was killed under the running test
+     *
+     * @param reason Why the browser was killed, e.g. an exceeded memory budget
+     */
+    public void markKilled(String reason) {
+        killReason = reason;
+    }
+
+    /**
+     * Get why the session's browser was killed
+     *
+     * @return Reason, or null if the session is healthy
+     */
+    public String getKillReason() {
+        return killReason;
+    }
+
+    /**
+     * Register an action to run before the driver of this context is quit
+     *
+     * @param hook Action to run
+     */
+    public void onClose(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
+    /**
+     * Register an action to run after the driver of this context has quit,
+     * e.g. deleting the browser profile directory
+     *
+     * @param hook Action to run
+     */
+    public void onQuit(Runnable hook) {
+        quitHooks.add(hook);
+    }
+
+    /**
+     * Run close hooks; failures are reported but never prevent the driver from quitting
+     */
+    void runCloseHooks() {
+        runHooks(closeHooks);
+    }
+
+    /**
+     * Run quit hooks once the driver has quit
+     */
+    void runQuitHooks() {
+        runHooks(quitHooks);
+    }
+
+    private void runHooks(List<Runnable> hooks) {
+        for (Runnable hook : hooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                log.warn("Test context hook failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Record a metric value, replacing any previous value
+     *
+     * @param name Metric name
+     * @param value Metric value
+     */
+    public void recordMetric(String name, long value) {
+        metrics.put(name, value);
+    }
+
+    /**
+     * Add to a counter metric
+     *
+     * @param name Metric name
+     * @param delta Amount to add
+     */
+    public void addMetric(String name, long delta) {
+        metrics.merge(name, delta, Long::sum);
+    }
+
+    /**
+     * Get all metrics recorded for this context
+     *
+     * @return Unmodifiable metric map
+     */
+    public Map<String, Long> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Wrap a task so that it runs with this context bound on the executing thread,
+     * making DriverManager.getDriver() work inside executor tasks
+     *
+     * @param task Task to wrap
+     * @return Wrapped task
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            TestContext previous = DriverManager.bindContext(this);
+            try {
+                task.run();
+            } finally {
+                DriverManager.bindContext(previous);
+            }
+        };
+    }
+
+    /**
+     * Wrap a task so that it runs with this context bound on the executing thread
+     *
+     * @param task Task to wrap
+     * @return Wrapped task
+     */
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            TestContext previous = DriverManager.bindContext(this);
+            try {
+                return task.call();
+            } finally {
+                DriverManager.bindContext(previous);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TestContext[" + testName + ", " + browserName + ", thread=" + ownerThread.getName() + (closed ? ", closed" : "") + "]";
+    }
+}
@@ -0,0 +1,295 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Static bytecode analysis that maps test classes to the project classes (page objects,
+ * utilities, base classes) they depend on, used to select tests affected by a change
+ *
+ * @author Brian LaTorraca
+ */
+public class TestImpactAnalyzer {
+
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+);");
+
+    private final ClassLoader classLoader;
+    private final Map<String, Set<String>> directDependencies = new ConcurrentHashMap<>();
+    // Class path entries (output directories or jars, e.g. under -Pappcds) holding the project's own classes
+    private final Set<String> projectLocations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for TestImpactAnalyzer
+     *
+     * @param classLoader Class loader used to locate compiled project classes
+     */
+    public TestImpactAnalyzer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        addProjectLocation(TestImpactAnalyzer.class.getName());
+    }
+
+    /**
+     * Result of mapping changed files to classes
+     */
+    public static class ChangeSet {
+        private final Set<String> changedClasses = new LinkedHashSet<>();
+        private final List<String> globalChanges = new ArrayList<>();
+
+        public Set<String> getChangedClasses() {
+            return changedClasses;
+        }
+
+        /**
+         * Changed files that may affect every test (build file, config, test data)
+         *
+         * @return List of file paths
+         */
+        public List<String> getGlobalChanges() {
+            return globalChanges;
+        }
+
+        public boolean affectsAllTests() {
+            return !globalChanges.isEmpty();
+        }
+    }
+
+    /**
+     * Map changed file paths to project class names
+     *
+     * @param changedFiles Changed file paths, relative to the module or the repository root
+     * @return ChangeSet with changed classes and files that affect all tests
+     */
+    public static ChangeSet classifyChanges(Collection<String> changedFiles) {
+        ChangeSet changeSet = new ChangeSet();
+        for (String file : changedFiles) {
+            String path = file.trim().replace('\\', '/');
+            if (path.isEmpty()) {
+                continue;
+            }
+
+            String className = toClassName(path);
+            if (className != null) {
+                changeSet.changedClasses.add(className);
+            } else if (path.endsWith("pom.xml") || path.contains("src/main/resources/")
+                    || path.contains("src/test/resources/") || path.contains("test-data/")) {
+                changeSet.globalChanges.add(path);
+            }
+            // Anything else (docs, other modules) cannot affect this framework's tests
+        }
+        return changeSet;
+    }
+
+    /**
+     * Get changed files from git relative to a base revision
+     *
+     * @param baseRevision Base branch, tag or commit
+     * @return Changed file paths relative to the current directory
+     */
+    public static List<String> changedFilesFromGit(String baseRevision) {
+        ProcessBuilder builder = new ProcessBuilder("git", "diff", "--relative", "--name-only", baseRevision);
+        builder.redirectErrorStream(true);
+        List<String> files = new ArrayList<>();
+        try {
+            Process process = builder.start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    files.add(line);
+                }
+            }
+            if (process.waitFor() != 0) {
+                throw new RuntimeException("git diff against '" + baseRevision + "' failed: " + files);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to run git diff against " + baseRevision, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running git diff", e);
+        }
+        return files;
+    }
+
+    /**
+     * Check whether a test class depends, directly or transitively, on any changed class
+     *
+     * @param testClass Fully qualified test class name
+     * @param changedClasses Fully qualified names of changed classes
+     * @return true if the test class is affected
+     */
+    public boolean isAffected(String testClass, Set<String> changedClasses) {
+        for (String dependency : transitiveDependencies(testClass)) {
+            if (changedClasses.contains(dependency)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get all project classes a class depends on, including itself
+     *
+     * @param className Fully qualified class name
+     * @return Set of top-level project class names
+     */
+    public Set<String> transitiveDependencies(String className) {
+        // The analyzed (test) class marks where the test classes live
+        addProjectLocation(className);
+        Set<String> visited = new HashSet<>();
+        Set<String> dependencies = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.add(className);
+
+        while (!pending.isEmpty()) {
+            String current = pending.poll();
+            if (visited.add(current)) {
+                dependencies.add(topLevelName(current));
+                pending.addAll(directDependencies(current));
+            }
+        }
+        return dependencies;
+    }
+
+    private Set<String> directDependencies(String className) {
+        return directDependencies.computeIfAbsent(className, this::readDependencies);
+    }
+
+    /**
+     * Read class references from the constant pool of a compiled project class
+     */
+    private Set<String> readDependencies(String className) {
+        Set<String> dependencies = new HashSet<>();
+        String resource = className.replace('.', '/') + ".class";
+        URL url = classLoader.getResource(resource);
+
+        // Only follow project classes; library jars are not part of the change surface
+        if (url == null || !projectLocations.contains(locationOf(url, resource))) {
+            return dependencies;
+        }
+
+        try (InputStream input = url.openStream();
+             DataInputStream data = new DataInputStream(input)) {
+            if (data.readInt() != 0xCAFEBABE) {
+                return dependencies;
+            }
+            data.readUnsignedShort(); // minor version
+            data.readUnsignedShort(); // major version
+
+            int count = data.readUnsignedShort();
+            for (int i = 1; i < count; i++) {
+                int tag = data.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8 - class names and type descriptors
+                        collectTypes(data.readUTF(), dependencies);
+                        break;
+                    case 7: // Class
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        data.readUnsignedShort();
+                        break;
+                    case 15: // MethodHandle
+                        data.readUnsignedByte();
+                        data.readUnsignedShort();
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        data.readInt();
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        data.readLong();
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to analyze class file: " + resource, e);
+        }
+
+        dependencies.remove(className);
+        dependencies.removeIf(name -> !isProjectClass(name));
+        return dependencies;
+    }
+
+    private void collectTypes(String utf8, Set<String> dependencies) {
+        // Plain internal class names, e.g. pages/HomePage
+        if (utf8.matches("[\\w/$]+") && utf8.indexOf('/') > 0) {
+            dependencies.add(utf8.replace('/', '.'));
+            return;
+        }
+
+        // Field, method and generic signature descriptors, e.g. (Lpages/LoginPage;)V
+        Matcher matcher = DESCRIPTOR_TYPE.matcher(utf8);
+        while (matcher.find()) {
+            dependencies.add(matcher.group(1).replace('/', '.'));
+        }
+    }
+
+    private boolean isProjectClass(String className) {
+        String resource = className.replace('.', '/') + ".class";
+        URL url = classLoader.getResource(resource);
+        return url != null && projectLocations.contains(locationOf(url, resource));
+    }
+
+    private void addProjectLocation(String className) {
+        String resource = className.replace('.', '/') + ".class";
+        URL url = classLoader.getResource(resource);
+        if (url != null) {
+            projectLocations.add(locationOf(url, resource));
+        }
+    }
+
+    /**
+     * Class path entry of a class file URL, e.g. file:/.../target/classes/ or jar:file:/.../app.jar!/
+     */
+    private static String locationOf(URL url, String resource) {
+        String location = url.toString();
+        return location.endsWith(resource) ? location.substring(0, location.length() - resource.length()) : location;
+    }
+
+    private static String toClassName(String path) {
+        if (!path.endsWith(".java")) {
+            return null;
+        }
+        for (String root : new String[]{"src/main/java/", "src/test/java/"}) {
+            int index = path.indexOf(root);
+            if (index >= 0) {
+                String relative = path.substring(index + root.length(), path.length() - ".java".length());
+                return relative.replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    private static String topLevelName(String className) {
+        int nested = className.indexOf('$');
+        return nested > 0 ? className.substring(0, nested) : className;
+    }
+}
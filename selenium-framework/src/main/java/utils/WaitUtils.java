@@ -87,14 +87,20 @@ public class WaitUtils {
     }
 
     public static void waitForPageToLoad(WebDriver driver) {
+        if (PageReadiness.isEnabled()) {
+            PageReadiness.waitUntilReady(driver);
+            return;
+        }
         getWait(driver).until(webDriver -> 
             ((org.openqa.selenium.JavascriptExecutor) webDriver)
                 .executeScript("return document.readyState").equals("complete"));
     }
 
     public static void waitForAjaxToComplete(WebDriver driver) {
-        getWait(driver).until(webDriver -> 
-            ((org.openqa.selenium.JavascriptExecutor) webDriver)
-                .executeScript("return jQuery.active == 0"));
+        PageReadiness.waitForAjaxIdle(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public static void waitForAjaxToComplete(WebDriver driver, int timeoutInSeconds) {
+        PageReadiness.waitForAjaxIdle(driver, Duration.ofSeconds(timeoutInSeconds));
     }
 }
\ No newline at end of file
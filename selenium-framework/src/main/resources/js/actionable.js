@@ -0,0 +1,140 @@
+/*
+ * Asynchronous actionability wait for fused interactions.
+ * Finds the element, waits until it is visible, enabled and not moving, scrolls it
+ * into view only when it is outside the viewport and, for clicks, checks that it
+ * receives the pointer at its centre. For typing the current value is cleared.
+ * "Not moving" compares the element's box over two consecutive animation frames, so a
+ * static element is ready after one frame instead of a fixed polling delay.
+ * The input itself is left to native WebDriver events.
+ *
+ * arguments: using, value, action ('click' or 'type'), timeoutMillis, callback
+ * result: {element: el} or {error: reason}
+ */
+var using = arguments[0];
+var value = arguments[1];
+var action = arguments[2];
+var deadline = Date.now() + arguments[3];
+var done = arguments[arguments.length - 1];
+var lastRect = null;
+var reason = 'not found';
+
+function find() {
+    switch (using) {
+        case 'css selector':
+            return document.querySelector(value);
+        case 'xpath':
+            return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)
+                .singleNodeValue;
+        case 'tag name':
+            return document.getElementsByTagName(value)[0] || null;
+        case 'link text':
+        case 'partial link text':
+            var links = document.getElementsByTagName('a');
+            for (var i = 0; i < links.length; i++) {
+                var text = (links[i].innerText || '').trim();
+                if (using === 'link text' ? text === value : text.indexOf(value) !== -1) {
+                    return links[i];
+                }
+            }
+            return null;
+        default:
+            throw new Error('unsupported locator strategy ' + using);
+    }
+}
+
+function isVisible(el) {
+    var style = window.getComputedStyle(el);
+    return el.getClientRects().length > 0
+        && style.visibility !== 'hidden'
+        && parseFloat(style.opacity) > 0;
+}
+
+function isInViewport(rect) {
+    return rect.top >= 0 && rect.left >= 0
+        && rect.bottom <= window.innerHeight && rect.right <= window.innerWidth;
+}
+
+function sameRect(a, b) {
+    return a !== null && a.top === b.top && a.left === b.left && a.width === b.width && a.height === b.height;
+}
+
+function receivesPointer(el, rect) {
+    var hit = document.elementFromPoint(rect.left + rect.width / 2, rect.top + rect.height / 2);
+    return hit !== null && (hit === el || el.contains(hit));
+}
+
+// Next animation frame; hidden pages get none, so fall back to a timer
+function nextFrame(callback) {
+    var called = false;
+    function once() {
+        if (!called) {
+            called = true;
+            callback();
+        }
+    }
+    requestAnimationFrame(once);
+    setTimeout(once, 100);
+}
+
+function clear(el) {
+    if (el.isContentEditable) {
+        el.textContent = '';
+    } else if ('value' in el && !el.readOnly) {
+        el.focus();
+        el.value = '';
+        el.dispatchEvent(new Event('input', {bubbles: true}));
+        el.dispatchEvent(new Event('change', {bubbles: true}));
+    }
+}
+
+function check() {
+    var el;
+    try {
+        el = find();
+    } catch (e) {
+        done({error: 'invalid selector: ' + e.message});
+        return;
+    }
+
+    if (!el) {
+        reason = 'not found';
+    } else if (!isVisible(el)) {
+        reason = 'not visible';
+    } else if (el.disabled) {
+        reason = 'disabled';
+    } else {
+        var rect = el.getBoundingClientRect();
+        if (!isInViewport(rect)) {
+            el.scrollIntoView({block: 'center', inline: 'nearest'});
+            rect = el.getBoundingClientRect();
+        }
+        var stable = sameRect(lastRect, rect);
+        lastRect = rect;
+
+        if (!stable) {
+            // First sample, or moved since the last frame: compare again on the next frame
+            reason = 'still moving';
+            if (Date.now() < deadline) {
+                nextFrame(check);
+                return;
+            }
+        } else if (action === 'click' && !receivesPointer(el, rect)) {
+            reason = 'obscured by another element';
+        } else {
+            if (action === 'type') {
+                clear(el);
+            }
+            done({element: el});
+            return;
+        }
+    }
+
+    if (Date.now() >= deadline) {
+        done({error: reason});
+        return;
+    }
+    lastRect = null;
+    setTimeout(check, 50);
+}
+
+check();
@@ -0,0 +1,96 @@
+/*
+ * Asynchronous AJAX idle wait, appended to readiness-tracker.js.
+ * Resolves true once no fetch/XHR (or jQuery) request is pending, no request finished
+ * within the quiet period and Angular/AngularJS/React report stability; DOM changes are
+ * ignored so clocks, carousels and spinners cannot keep the wait open;
+ * resolves false when the timeout elapses.
+ *
+ * arguments: quietMillis, timeoutMillis, callback
+ */
+var quietMillis = arguments[0];
+var deadline = Date.now() + arguments[1];
+var done = arguments[arguments.length - 1];
+var state = window.__readiness;
+var finished = false;
+
+function finish(idle) {
+    if (!finished) {
+        finished = true;
+        done(idle);
+    }
+}
+
+// Framework hooks (e.g. Angular whenStable under a running interval) may never call back
+setTimeout(function () {
+    finish(false);
+}, arguments[1]);
+
+function whenFrameworksStable(callback) {
+    // Angular 2+
+    if (typeof window.getAllAngularTestabilities === 'function') {
+        var testabilities = window.getAllAngularTestabilities();
+        var remaining = testabilities.length;
+        if (remaining === 0) {
+            callback();
+            return;
+        }
+        testabilities.forEach(function (testability) {
+            testability.whenStable(function () {
+                if (--remaining === 0) {
+                    callback();
+                }
+            });
+        });
+        return;
+    }
+
+    // AngularJS
+    if (window.angular && window.angular.element) {
+        try {
+            var root = document.querySelector('[ng-app],[data-ng-app],.ng-scope') || document.body;
+            var injector = window.angular.element(root).injector();
+            if (injector) {
+                injector.get('$browser').notifyWhenNoOutstandingRequests(callback);
+                return;
+            }
+        } catch (e) {
+            // Not bootstrapped yet - fall through to the generic check
+        }
+    }
+
+    // React has no public stability hook: let pending renders commit over two frames
+    if (window.__REACT_DEVTOOLS_GLOBAL_HOOK__ || document.querySelector('[data-reactroot]')) {
+        requestAnimationFrame(function () {
+            requestAnimationFrame(callback);
+        });
+        return;
+    }
+
+    callback();
+}
+
+function isIdle() {
+    var jQueryIdle = !window.jQuery || !window.jQuery.active;
+    return state.pending === 0 && jQueryIdle && Date.now() - state.lastNetwork >= quietMillis;
+}
+
+function check() {
+    if (finished) {
+        return;
+    }
+    if (Date.now() > deadline) {
+        finish(false);
+    } else if (isIdle()) {
+        whenFrameworksStable(function () {
+            if (isIdle()) {
+                finish(true);
+            } else {
+                setTimeout(check, 25);
+            }
+        });
+    } else {
+        setTimeout(check, 25);
+    }
+}
+
+check();
@@ -0,0 +1,76 @@
+/*
+ * Page readiness tracker: counts in-flight fetch/XHR requests and records the time
+ * of the last network and DOM activity (lastActivity is the later of the two).
+ * Installed at document start via DevTools, or injected on demand.
+ * Safe to run more than once per document.
+ */
+(function () {
+    if (window.__readiness) {
+        return;
+    }
+
+    var now = Date.now();
+    var state = window.__readiness = { pending: 0, lastActivity: now, lastNetwork: now, lastDom: now };
+
+    function touchNetwork() {
+        state.lastActivity = state.lastNetwork = Date.now();
+    }
+
+    function touchDom() {
+        state.lastActivity = state.lastDom = Date.now();
+    }
+
+    function started() {
+        state.pending++;
+        touchNetwork();
+    }
+
+    function finished() {
+        state.pending = Math.max(0, state.pending - 1);
+        touchNetwork();
+    }
+
+    if (window.fetch) {
+        var originalFetch = window.fetch;
+        window.fetch = function () {
+            started();
+            return originalFetch.apply(this, arguments).then(function (response) {
+                finished();
+                return response;
+            }, function (error) {
+                finished();
+                throw error;
+            });
+        };
+    }
+
+    var originalSend = XMLHttpRequest.prototype.send;
+    XMLHttpRequest.prototype.send = function () {
+        var done = false;
+        function complete() {
+            if (!done) {
+                done = true;
+                finished();
+            }
+        }
+        started();
+        this.addEventListener('loadend', complete);
+        try {
+            return originalSend.apply(this, arguments);
+        } catch (e) {
+            complete();
+            throw e;
+        }
+    };
+
+    function observeDom() {
+        new MutationObserver(touchDom).observe(document.documentElement,
+            { childList: true, subtree: true, characterData: true });
+    }
+
+    if (document.documentElement) {
+        observeDom();
+    } else {
+        document.addEventListener('DOMContentLoaded', observeDom);
+    }
+})();
@@ -1,12 +1,29 @@
 package base;
 
 import config.ConfigManager;
+import listeners.BrowserMatrixListener;
+import listeners.ExtentReportListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 import utils.DriverManager;
+import utils.LocalGridLauncher;
+import utils.NetworkFilter;
+import utils.PageReadiness;
+import utils.ProcessReaper;
+import utils.ProfileTemplates;
+import utils.RemoteDriverFactory;
 import utils.ScreenshotUtils;
+import utils.SharedBrowser;
+import utils.TestContext;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Base test class providing setup and teardown functionality
@@ -15,28 +32,48 @@ import java.lang.reflect.Method;
  */
 public abstract class BaseTest {
     
-    protected ConfigManager config;
+    private static final Logger log = LogManager.getLogger(BaseTest.class);
+    
+    protected ConfigManager config = ConfigManager.getInstance();
     
     @BeforeSuite
     public void suiteSetup() {
-        System.out.println("=== Test Suite Starting ===");
-        config = ConfigManager.getInstance();
+        log.info("=== Test Suite Starting ===");
         
         // Create output directories
         createOutputDirectories();
         
-        System.out.println("Browser: " + config.getBrowser());
-        System.out.println("Environment: " + config.getEnvironment());
-        System.out.println("Base URL: " + config.getBaseUrl());
-        System.out.println("Headless: " + config.isHeadless());
+        log.info("Browser: " + config.getBrowser());
+        log.info("Environment: " + config.getEnvironment());
+        log.info("Base URL: " + config.getBaseUrl());
+        log.info("Headless: " + config.isHeadless());
+        if (config.isLocalGridEnabled()) {
+            // Runtime overrides: sessions of this run go through the in-process standalone server
+            String gridUrl = LocalGridLauncher.start(config.getLocalGridMaxSessions(),
+                    config.getLocalGridSessionRequestTimeout(), config.getLocalGridStartupTimeout());
+            System.setProperty("grid.enabled", "true");
+            System.setProperty("grid.hub.url", gridUrl);
+        }
+        if (config.isGridEnabled()) {
+            log.info("Grid: " + config.getGridHubUrl());
+        }
+        log.info("Browser sessions: " + (config.isAdaptiveConcurrency()
+                ? "adaptive " + config.getConcurrencyMin() + "-" + config.getConcurrencyMax()
+                : String.valueOf(config.getMaxBrowserSessions())));
     }
     
     @BeforeMethod
-    public void testSetup(Method method) {
-        System.out.println("\n--- Starting Test: " + method.getName() + " ---");
+    public void testSetup(Method method, ITestContext testContext) {
+        log.info("--- Starting Test: " + method.getName() + " ---");
+        
+        // Initialize WebDriver inside a fresh test context; matrix runs pick the browser per XmlTest
+        String testName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        String matrixBrowser = testContext.getCurrentXmlTest().getParameter(BrowserMatrixListener.BROWSER_PARAMETER);
+        TestContext context = matrixBrowser != null
+                ? DriverManager.createContext(testName + " [" + matrixBrowser + "]", matrixBrowser)
+                : DriverManager.createContext(testName);
         
-        // Initialize WebDriver
-        DriverManager.setDriver();
+        installNetworkFilter(context, method);
         
         // Navigate to base URL if specified
         String baseUrl = config.getBaseUrl();
@@ -45,38 +82,94 @@ public abstract class BaseTest {
         }
     }
     
-    @AfterMethod
+    // Runs even when this or a subclass @BeforeMethod failed, so the context and its session slot are released
+    @AfterMethod(alwaysRun = true)
     public void testTeardown(ITestResult result) {
         String testName = result.getMethod().getMethodName();
         
-        // Take screenshot if test failed or if configured to take on pass
-        if (result.getStatus() == ITestResult.FAILURE && config.isScreenshotOnFailure()) {
-            ScreenshotUtils.takeFailureScreenshot(DriverManager.getDriver(), testName);
-        }
-        
-        // Print test result
-        switch (result.getStatus()) {
-            case ITestResult.SUCCESS:
-                System.out.println("✓ Test PASSED: " + testName);
-                break;
-            case ITestResult.FAILURE:
-                System.out.println("✗ Test FAILED: " + testName);
-                System.out.println("Failure Reason: " + result.getThrowable().getMessage());
-                break;
-            case ITestResult.SKIP:
-                System.out.println("⊘ Test SKIPPED: " + testName);
-                break;
+        try {
+            // Take screenshot if test failed or if configured to take on pass
+            if (result.getStatus() == ITestResult.FAILURE && config.isScreenshotOnFailure()
+                    && DriverManager.isDriverInitialized()) {
+                String screenshotPath = ScreenshotUtils.takeFailureScreenshot(DriverManager.getDriver(), testName);
+                if (screenshotPath != null && result.getAttribute(ExtentReportListener.SCREENSHOT_ATTRIBUTE) == null) {
+                    result.setAttribute(ExtentReportListener.SCREENSHOT_ATTRIBUTE, screenshotPath);
+                }
+            }
+            
+            // Print test result
+            switch (result.getStatus()) {
+                case ITestResult.SUCCESS:
+                    log.info("✓ Test PASSED: " + testName);
+                    break;
+                case ITestResult.FAILURE:
+                    log.error("✗ Test FAILED: " + testName);
+                    log.error("Failure Reason: " + result.getThrowable().getMessage());
+                    break;
+                case ITestResult.SKIP:
+                    log.info("⊘ Test SKIPPED: " + testName);
+                    break;
+            }
+        } finally {
+            // Quit WebDriver
+            DriverManager.quitDriver();
         }
         
-        // Quit WebDriver
-        DriverManager.quitDriver();
-        
-        System.out.println("--- Test Completed: " + testName + " ---\n");
+        log.info("--- Test Completed: " + testName + " ---");
     }
     
     @AfterSuite
     public void suiteTeardown() {
-        System.out.println("=== Test Suite Completed ===");
+        // Any context still open here leaked a browser session
+        int leaked = DriverManager.closeLeakedContexts();
+        if (leaked > 0) {
+            log.warn("Closed " + leaked + " leaked test context(s) at suite end");
+        }
+        RemoteDriverFactory.shutdown();
+        SharedBrowser.closeAll();
+        ProfileTemplates.deleteAll();
+        if (config.isProcessReaperEnabled()) {
+            int killed = ProcessReaper.getInstance().reapAll();
+            if (killed > 0) {
+                log.warn("Killed " + killed + " orphaned browser/driver process(es) at suite end");
+            }
+        }
+        log.info("=== Test Suite Completed ===");
+    }
+    
+    /**
+     * Get the test context of the current test
+     * 
+     * @return TestContext carrying driver, config and metrics
+     */
+    protected TestContext getContext() {
+        return DriverManager.getContext();
+    }
+    
+    /**
+     * Install the network filter from configuration and the test's @BlockRequests annotation
+     * 
+     * @param context Test context
+     * @param method Test method
+     */
+    private void installNetworkFilter(TestContext context, Method method) {
+        BlockRequests blockRequests = method.getAnnotation(BlockRequests.class);
+        if (!config.isNetworkFilterEnabled() && blockRequests == null) {
+            return;
+        }
+        
+        List<String> categories = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        if (config.isNetworkFilterEnabled()) {
+            categories.addAll(config.getNetworkBlockCategories());
+            patterns.addAll(config.getNetworkBlockPatterns());
+        }
+        if (blockRequests != null) {
+            categories.addAll(Arrays.asList(blockRequests.categories()));
+            patterns.addAll(Arrays.asList(blockRequests.patterns()));
+        }
+        
+        NetworkFilter.install(context, NetworkFilter.resolvePatterns(categories, patterns));
     }
     
     /**
@@ -85,8 +178,15 @@ public abstract class BaseTest {
      * @param url Target URL
      */
     protected void navigateToUrl(String url) {
-        System.out.println("Navigating to: " + url);
-        DriverManager.getDriver().get(url);
+        log.info("Navigating to: " + url);
+        WebDriver driver = DriverManager.getDriver();
+        
+        // EAGER/NONE strategies return before the app is ready
+        if (PageReadiness.isEnabled()) {
+            PageReadiness.navigate(driver, () -> driver.get(url));
+        } else {
+            driver.get(url);
+        }
     }
     
     /**
@@ -105,9 +205,9 @@ public abstract class BaseTest {
         try {
             java.nio.file.Files.createDirectories(java.nio.file.Paths.get(config.getScreenshotPath()));
             java.nio.file.Files.createDirectories(java.nio.file.Paths.get(config.getReportPath()));
-            System.out.println("Output directories created successfully");
+            log.info("Output directories created successfully");
         } catch (Exception e) {
-            System.err.println("Failed to create output directories: " + e.getMessage());
+            log.warn("Failed to create output directories: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Block network requests for a single test, on top of the configured network filter
+ * 
+ * @author Brian LaTorraca
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BlockRequests {
+    
+    /**
+     * Resource categories to block: analytics, fonts, images, media
+     */
+    String[] categories() default {};
+    
+    /**
+     * URL patterns to block, with * wildcards
+     */
+    String[] patterns() default {};
+}
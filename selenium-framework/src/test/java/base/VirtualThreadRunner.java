@@ -0,0 +1,84 @@
+package base;
+
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.TestNG;
+import org.testng.internal.thread.DefaultThreadPoolExecutorFactory;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a suite with TestNG's test method workers on virtual threads (Java 21+).
+ * Test bodies block on WebDriver HTTP calls, so a parallel suite can use a high thread-count;
+ * live browsers stay bounded by max.browser.sessions and waiting tests park without holding an OS thread.
+ * Used by the java21 profile instead of Surefire, which cannot pass an executor factory to TestNG.
+ *
+ * @author Brian LaTorraca
+ */
+public class VirtualThreadRunner implements IExecutorFactory {
+
+    private static final String DEFAULT_SUITE = "src/test/resources/virtual-thread-suite.xml";
+
+    private final IExecutorFactory defaults = new DefaultThreadPoolExecutorFactory();
+    private final ThreadFactory virtualThreads = virtualThreadFactory();
+
+    /**
+     * Run a suite on virtual threads
+     *
+     * @param args Optional suite file, defaults to virtual-thread-suite.xml
+     */
+    public static void main(String[] args) {
+        TestNG testng = new TestNG();
+        testng.setExecutorFactory(new VirtualThreadRunner());
+        testng.setTestSuites(Collections.singletonList(args.length > 0 ? args[0] : DEFAULT_SUITE));
+        testng.setOutputDirectory("target/surefire-reports");
+        testng.run();
+        if (testng.getStatus() != 0) {
+            throw new IllegalStateException("Virtual thread suite failed with TestNG status " + testng.getStatus());
+        }
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph,
+            IThreadWorkerFactory<ISuite> factory, int corePoolSize, int maximumPoolSize, long keepAliveTime,
+            TimeUnit unit, BlockingQueue<Runnable> workQueue, Comparator<ISuite> comparator) {
+        return defaults.newSuiteExecutor(name, graph, factory, corePoolSize, maximumPoolSize, keepAliveTime,
+                unit, workQueue, comparator);
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph,
+            IThreadWorkerFactory<ITestNGMethod> factory, int corePoolSize, int maximumPoolSize, long keepAliveTime,
+            TimeUnit unit, BlockingQueue<Runnable> workQueue, Comparator<ITestNGMethod> comparator) {
+        ITestNGThreadPoolExecutor executor = defaults.newTestMethodExecutor(name, graph, factory, corePoolSize,
+                maximumPoolSize, keepAliveTime, unit, workQueue, comparator);
+        // Workers are started lazily, so replacing the factory before run() puts every test on a virtual thread
+        ((ThreadPoolExecutor) executor).setThreadFactory(virtualThreads);
+        return executor;
+    }
+
+    /**
+     * Thread.ofVirtual().name("testng-virtual-", 1).factory(), looked up reflectively so the
+     * framework still compiles for Java 11
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "testng-virtual-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on Java "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import utils.BrowserProfiles;
+import utils.DriverManager;
+import utils.TestContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares browser launch time and a fixed in-page workload between the default
+ * and ci-throughput browser profiles. Run with: mvn test -Pbenchmark
+ * 
+ * @author Brian LaTorraca
+ */
+public class BrowserProfileBenchmark {
+    
+    private static final Logger log = LogManager.getLogger(BrowserProfileBenchmark.class);
+    
+    private static final String WORKLOAD_PAGE = "data:text/html,"
+            + "<html><body><div id='list'></div><input id='field'><button id='add' "
+            + "onclick=\"var d=document.createElement('div');d.textContent=document.getElementById('field').value;"
+            + "document.getElementById('list').appendChild(d)\">Add</button>"
+            + "<script>for(var i=0;i<2000;i++){var e=document.createElement('p');e.textContent='row '+i;"
+            + "document.body.appendChild(e)}</script></body></html>";
+    
+    private final int iterations = Integer.getInteger("benchmark.iterations", 5);
+    private final Map<String, long[]> launchTimes = new LinkedHashMap<>();
+    private final Map<String, long[]> workloadTimes = new LinkedHashMap<>();
+    
+    @Test(description = "Measure the default browser profile")
+    public void benchmarkDefaultProfile() {
+        measure(BrowserProfiles.DEFAULT);
+    }
+    
+    @Test(description = "Measure the ci-throughput browser profile")
+    public void benchmarkCiThroughputProfile() {
+        measure(BrowserProfiles.CI_THROUGHPUT);
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void printResults() {
+        log.info("========================================");
+        log.info("Browser Profile Benchmark (" + iterations + " iterations, median / p90 ms)");
+        log.info("========================================");
+        log.info(String.format("%-16s %20s %20s", "Profile", "Launch", "Workload"));
+        for (String profile : launchTimes.keySet()) {
+            log.info(String.format("%-16s %20s %20s", profile,
+                    summarize(launchTimes.get(profile)), summarize(workloadTimes.get(profile))));
+        }
+        log.info("========================================");
+    }
+    
+    private void measure(String profile) {
+        String previous = System.getProperty("browser.profile");
+        System.setProperty("browser.profile", profile);
+        long[] launch = new long[iterations];
+        long[] workload = new long[iterations];
+        try {
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                TestContext context = DriverManager.createContext("benchmark." + profile + "." + i);
+                launch[i] = (System.nanoTime() - start) / 1_000_000;
+                try {
+                    start = System.nanoTime();
+                    runWorkload(context.getDriver());
+                    workload[i] = (System.nanoTime() - start) / 1_000_000;
+                } finally {
+                    DriverManager.quitDriver();
+                }
+            }
+        } finally {
+            if (previous != null) {
+                System.setProperty("browser.profile", previous);
+            } else {
+                System.clearProperty("browser.profile");
+            }
+        }
+        launchTimes.put(profile, launch);
+        workloadTimes.put(profile, workload);
+    }
+    
+    private void runWorkload(WebDriver driver) {
+        driver.get(WORKLOAD_PAGE);
+        for (int i = 0; i < 10; i++) {
+            driver.findElement(By.id("field")).clear();
+            driver.findElement(By.id("field")).sendKeys("item " + i);
+            driver.findElement(By.id("add")).click();
+        }
+        ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight)");
+        driver.findElements(By.tagName("p")).size();
+    }
+    
+    private String summarize(long[] values) {
+        List<Long> sorted = new ArrayList<>();
+        Arrays.stream(values).forEach(sorted::add);
+        Collections.sort(sorted);
+        long median = sorted.get(sorted.size() / 2);
+        long p90 = sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(sorted.size() * 0.9) - 1));
+        return median + " / " + p90;
+    }
+}
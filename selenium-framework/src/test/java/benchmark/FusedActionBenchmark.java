@@ -0,0 +1,132 @@
+package benchmark;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pages.BasePage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts WebDriver round trips and time per click/type with classic BasePage
+ * interactions and with fused actions. Run with: mvn test -Pbenchmark
+ * 
+ * @author Brian LaTorraca
+ */
+public class FusedActionBenchmark {
+    
+    private static final Logger log = LogManager.getLogger(FusedActionBenchmark.class);
+    
+    private static final String PAGE = "data:text/html,"
+            + "<html><body><input id='field'><div style='height:3000px'></div>"
+            + "<button id='add' onclick=\"var d=document.createElement('div');"
+            + "d.textContent=document.getElementById('field').value;document.body.appendChild(d)\">Add</button>"
+            + "</body></html>";
+    
+    private final int iterations = Integer.getInteger("benchmark.iterations", 20);
+    private final Map<String, double[]> results = new LinkedHashMap<>();
+    private CountingChromeDriver driver;
+    
+    /**
+     * ChromeDriver that counts the commands it sends, including element commands
+     */
+    private static class CountingChromeDriver extends ChromeDriver {
+        private int commands;
+        
+        CountingChromeDriver(ChromeOptions options) {
+            super(options);
+        }
+        
+        @Override
+        protected Response execute(CommandPayload payload) {
+            commands++;
+            return super.execute(payload);
+        }
+    }
+    
+    /**
+     * Page object exposing the BasePage interactions under test
+     */
+    private static class FormPage extends BasePage {
+        FormPage(WebDriver driver) {
+            super(driver);
+        }
+        
+        void type(String text) {
+            sendKeys(By.id("field"), text);
+        }
+        
+        void add() {
+            click(By.id("add"));
+        }
+    }
+    
+    @BeforeClass
+    public void startBrowser() {
+        WebDriverManager.chromedriver().setup();
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--window-size=1366,768");
+        driver = new CountingChromeDriver(options);
+    }
+    
+    @Test(description = "Measure classic wait + scroll + act interactions")
+    public void benchmarkClassicActions() {
+        measure("classic", false);
+    }
+    
+    @Test(description = "Measure fused actionability script + native input")
+    public void benchmarkFusedActions() {
+        measure("fused", true);
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void printResults() {
+        if (driver != null) {
+            driver.quit();
+        }
+        log.info("========================================");
+        log.info("Fused Action Benchmark (" + iterations + " iterations of type + click)");
+        log.info("========================================");
+        log.info(String.format("%-10s %22s %18s", "Mode", "Round trips/action", "ms/action"));
+        for (Map.Entry<String, double[]> result : results.entrySet()) {
+            log.info(String.format("%-10s %22.1f %18.1f", result.getKey(),
+                    result.getValue()[0], result.getValue()[1]));
+        }
+        log.info("========================================");
+    }
+    
+    private void measure(String mode, boolean fused) {
+        String previous = System.getProperty("fused.actions");
+        System.setProperty("fused.actions", String.valueOf(fused));
+        try {
+            driver.get(PAGE);
+            FormPage page = new FormPage(driver);
+            int commandsBefore = driver.commands;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                page.type("item " + i);
+                page.add();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            int actions = iterations * 2;
+            results.put(mode, new double[]{
+                    (double) (driver.commands - commandsBefore) / actions, (double) elapsedMillis / actions});
+        } finally {
+            if (previous != null) {
+                System.setProperty("fused.actions", previous);
+            } else {
+                System.clearProperty("fused.actions");
+            }
+        }
+    }
+}
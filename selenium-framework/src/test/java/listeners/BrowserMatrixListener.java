@@ -0,0 +1,134 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fans every test of the suite out over the configured browser matrix, so one run
+ * covers chrome, firefox and edge in parallel, and prints results grouped per browser
+ * Registered through META-INF/services; does nothing while browser.matrix is empty
+ * Author: Brian LaTorraca
+ */
+public class BrowserMatrixListener implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger log = LogManager.getLogger(BrowserMatrixListener.class);
+
+    public static final String BROWSER_PARAMETER = "matrix.browser";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        List<String> browsers = ConfigManager.getInstance().getBrowserMatrix();
+        if (browsers.isEmpty()) {
+            return;
+        }
+
+        for (XmlSuite suite : suites) {
+            List<XmlTest> originals = new ArrayList<>(suite.getTests());
+            List<XmlTest> expanded = new ArrayList<>();
+            for (XmlTest original : originals) {
+                if (original.getLocalParameters().containsKey(BROWSER_PARAMETER)) {
+                    // Already expanded, e.g. the quarantine lane's copy of an expanded suite
+                    expanded.add(original);
+                    continue;
+                }
+                for (String browser : browsers) {
+                    expanded.add(copyForBrowser(suite, original, browser));
+                }
+            }
+            suite.setTests(expanded);
+
+            // Browsers run side by side: each browser's copy of a test is a separate parallel unit
+            if (suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            }
+            suite.setThreadCount(Math.max(suite.getThreadCount(), browsers.size()));
+            log.info("Browser matrix " + browsers + ": " + originals.size() + " tests expanded to "
+                    + expanded.size() + " in suite " + suite.getName());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (ISuiteResult result : suite.getResults().values()) {
+            ITestContext context = result.getTestContext();
+            String browser = context.getCurrentXmlTest().getParameter(BROWSER_PARAMETER);
+            if (browser == null) {
+                continue;
+            }
+            int[] browserCounts = counts.computeIfAbsent(browser, b -> new int[3]);
+            browserCounts[0] += context.getPassedTests().size();
+            browserCounts[1] += context.getFailedTests().size();
+            browserCounts[2] += context.getSkippedTests().size();
+            long duration = context.getPassedTests().getAllResults().stream()
+                    .mapToLong(r -> r.getEndMillis() - r.getStartMillis()).sum()
+                    + context.getFailedTests().getAllResults().stream()
+                    .mapToLong(r -> r.getEndMillis() - r.getStartMillis()).sum();
+            durations.merge(browser, duration, Long::sum);
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        log.info("========================================");
+        log.info("BROWSER MATRIX RESULTS - " + suite.getName());
+        log.info("========================================");
+        log.info(String.format("%-10s %8s %8s %8s %12s", "Browser", "Passed", "Failed", "Skipped", "Test time"));
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int[] c = entry.getValue();
+            log.info(String.format("%-10s %8d %8d %8d %10ds", entry.getKey(), c[0], c[1], c[2],
+                    durations.get(entry.getKey()) / 1000));
+        }
+        log.info("========================================");
+    }
+
+    private XmlTest copyForBrowser(XmlSuite suite, XmlTest original, String browser) {
+        XmlTest copy = new XmlTest(suite);
+        copy.setName(original.getName() + " [" + browser + "]");
+        copy.setPreserveOrder(original.getPreserveOrder());
+        copy.setParallel(original.getParallel());
+        copy.setThreadCount(original.getThreadCount());
+        copy.setIncludedGroups(original.getIncludedGroups());
+        copy.setExcludedGroups(original.getExcludedGroups());
+        copy.setXmlPackages(original.getXmlPackages());
+
+        Map<String, String> parameters = new LinkedHashMap<>(original.getLocalParameters());
+        parameters.put(BROWSER_PARAMETER, browser);
+        copy.setParameters(parameters);
+
+        List<XmlClass> classes = new ArrayList<>();
+        for (XmlClass originalClass : original.getXmlClasses()) {
+            XmlClass xmlClass = new XmlClass(originalClass.getName(), false);
+            xmlClass.setXmlTest(copy);
+            xmlClass.setParameters(originalClass.getLocalParameters());
+            xmlClass.setExcludedMethods(originalClass.getExcludedMethods());
+
+            List<XmlInclude> includes = new ArrayList<>();
+            for (XmlInclude include : originalClass.getIncludedMethods()) {
+                XmlInclude copyInclude = new XmlInclude(include.getName(), include.getInvocationNumbers(), includes.size());
+                copyInclude.setParameters(include.getLocalParameters());
+                includes.add(copyInclude);
+            }
+            xmlClass.setIncludedMethods(includes);
+            classes.add(xmlClass);
+        }
+        copy.setXmlClasses(classes);
+        return copy;
+    }
+}
@@ -0,0 +1,279 @@
+package listeners;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming test report. Every finished test is appended to results.jsonl at once, so a
+ * crashed run keeps every finished result. The ExtentReports HTML report is built from
+ * results.jsonl at suite end, or on demand with main(), so memory during the run does not
+ * grow with the number of tests and the HTML is rendered once instead of on a timer.
+ * Screenshots are referenced by relative path, never inlined as base64.
+ * Register after TestListener, which records the failure screenshot.
+ *
+ * @author Brian LaTorraca
+ */
+public class ExtentReportListener implements ISuiteListener, ITestListener {
+
+    private static final Logger log = LogManager.getLogger(ExtentReportListener.class);
+
+    /**
+     * Test result attribute holding the path of the test's failure screenshot
+     */
+    public static final String SCREENSHOT_ATTRIBUTE = "screenshot.path";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String RESULTS_FILE = "results.jsonl";
+    private static final String HTML_FILE = "extent-report.html";
+    // Guards the JSON line stream only; HTML rendering holds the class lock
+    private static final Object streamLock = new Object();
+
+    private static Path reportDir;
+    private static BufferedWriter stream;
+
+    @Override
+    public void onStart(ISuite suite) {
+        open();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        synchronized (ExtentReportListener.class) {
+            if (stream == null) {
+                return;
+            }
+        }
+        writeHtml(reportDir.resolve(RESULTS_FILE), reportDir.resolve(HTML_FILE));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        record(result);
+    }
+
+    /**
+     * Build the HTML report from a results file, e.g. of a run that was killed before suite end
+     * (mvn -Pextent-report test-compile exec:java [-Dexec.args=test-output/reports/results.jsonl])
+     *
+     * @param args Optional path of results.jsonl; defaults to the one under report.path
+     */
+    public static void main(String[] args) {
+        Path results = args.length > 0
+                ? Paths.get(args[0])
+                : Paths.get(ConfigManager.getInstance().getReportPath()).resolve(RESULTS_FILE);
+        writeHtml(results, results.resolveSibling(HTML_FILE));
+    }
+
+    private static synchronized void open() {
+        if (stream != null) {
+            return;
+        }
+
+        reportDir = Paths.get(ConfigManager.getInstance().getReportPath());
+        try {
+            Files.createDirectories(reportDir);
+            stream = Files.newBufferedWriter(reportDir.resolve(RESULTS_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create report directory " + reportDir, e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(ExtentReportListener::close, "extent-report-close"));
+        log.info("Streaming test results to " + reportDir.resolve(RESULTS_FILE).toAbsolutePath());
+    }
+
+    private void record(ITestResult result) {
+        if (stream == null) {
+            open();
+        }
+        String browser = result.getTestContext().getCurrentXmlTest().getParameter(BrowserMatrixListener.BROWSER_PARAMETER);
+        Object screenshot = result.getAttribute(SCREENSHOT_ATTRIBUTE);
+        append(result, browser, screenshot != null ? relativize(screenshot.toString()) : null);
+    }
+
+    /**
+     * Append one JSON line per test and flush it, so finished tests survive a crash
+     */
+    private static void append(ITestResult result, String browser, String screenshot) {
+        String className = result.getTestClass().getRealClass().getSimpleName();
+        String method = className + "." + result.getMethod().getMethodName();
+        String name = browser != null ? method + " [" + browser + "]" : method;
+        Object[] parameters = result.getParameters();
+        Throwable throwable = result.getThrowable();
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("class", className);
+        event.put("description", result.getMethod().getDescription());
+        event.put("browser", browser);
+        event.put("status", statusName(result.getStatus()));
+        event.put("start", result.getStartMillis());
+        event.put("durationMs", result.getEndMillis() - result.getStartMillis());
+        event.put("thread", Thread.currentThread().getName());
+        if (parameters != null && parameters.length > 0) {
+            event.put("parameters", Arrays.deepToString(parameters));
+        }
+        if (throwable != null) {
+            event.put("error", String.valueOf(throwable.getMessage()));
+            if (result.getStatus() == ITestResult.FAILURE) {
+                event.put("stackTrace", stackTrace(throwable));
+            }
+        }
+        event.put("screenshot", screenshot);
+
+        synchronized (streamLock) {
+            try {
+                stream.write(JSON.writeValueAsString(event));
+                stream.newLine();
+                stream.flush();
+            } catch (IOException e) {
+                log.warn("Failed to write result of " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Render the HTML report from a results file; the report model lives only while rendering
+     *
+     * @param results results.jsonl to read
+     * @param html HTML report to write
+     */
+    static synchronized void writeHtml(Path results, Path html) {
+        if (!Files.exists(results)) {
+            log.warn("No results to report: " + results + " does not exist");
+            return;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        ExtentSparkReporter spark = new ExtentSparkReporter(html.toFile());
+        spark.config().setDocumentTitle("Test Automation Report");
+        spark.config().setReportName("Selenium Test Results");
+        ExtentReports report = new ExtentReports();
+        report.attachReporter(spark);
+        report.setSystemInfo("Browser", config.getBrowser());
+        report.setSystemInfo("Environment", config.getEnvironment());
+
+        int tests = 0;
+        try (BufferedReader reader = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> event;
+                try {
+                    event = JSON.readValue(line, new TypeReference<Map<String, Object>>() {});
+                } catch (IOException e) {
+                    // Torn last line of a killed run
+                    continue;
+                }
+                addTest(report, event);
+                tests++;
+            }
+            report.flush();
+            log.info("HTML report with " + tests + " tests written to " + html.toAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write HTML report: " + e.getMessage());
+        }
+    }
+
+    private static void addTest(ExtentReports report, Map<String, Object> event) {
+        ExtentTest test = report.createTest((String) event.get("name"), (String) event.get("description"));
+        long start = ((Number) event.get("start")).longValue();
+        test.getModel().setStartTime(new Date(start));
+        test.getModel().setEndTime(new Date(start + ((Number) event.get("durationMs")).longValue()));
+        test.assignCategory((String) event.get("class"));
+        if (event.get("browser") != null) {
+            test.assignDevice((String) event.get("browser"));
+        }
+
+        String screenshot = (String) event.get("screenshot");
+        Media media = screenshot != null ? MediaEntityBuilder.createScreenCaptureFromPath(screenshot).build() : null;
+        Object stackTrace = event.get("stackTrace");
+        switch (String.valueOf(event.get("status"))) {
+            case "PASS":
+                test.pass("Passed");
+                break;
+            case "FAIL":
+                test.fail(stackTrace != null ? "<pre>" + escape(stackTrace.toString()) + "</pre>" : "Failed", media);
+                break;
+            default:
+                test.skip(event.get("error") != null ? event.get("error").toString() : "Skipped");
+                break;
+        }
+    }
+
+    private static synchronized void close() {
+        if (stream == null) {
+            return;
+        }
+        try {
+            synchronized (streamLock) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close results stream: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Screenshot path relative to the report directory, so the report folder can be moved with its screenshots
+     */
+    private static String relativize(String screenshot) {
+        Path path = Paths.get(screenshot).toAbsolutePath().normalize();
+        return reportDir.toAbsolutePath().normalize().relativize(path).toString().replace('\\', '/');
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;");
+    }
+
+    private static String statusName(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            default:
+                return "SKIP";
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package listeners;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compact, persisted index of failed test methods and their data provider rows.
+ * Written by TestListener after every test block and read back by the rerun-failed profile.
+ * Matrix runs index each browser separately, so a rerun only repeats the browsers that failed.
+ * Author: Brian LaTorraca
+ */
+public class FailedTestIndex {
+
+    private static final Logger log = LogManager.getLogger(FailedTestIndex.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // "className#methodName[#browser]" -> failed data provider rows (empty set means the whole method)
+    private static final Map<String, TreeSet<Integer>> failures = new LinkedHashMap<>();
+
+    private FailedTestIndex() {}
+
+    /**
+     * Record failed and skipped tests of a finished test block and rewrite the index file.
+     * The latest block wins: a method that ran here is only kept if it failed or was skipped here.
+     *
+     * @param context Finished test context
+     * @param indexPath Index file path
+     */
+    public static synchronized void record(ITestContext context, String indexPath) {
+        String browser = context.getCurrentXmlTest().getParameter(BrowserMatrixListener.BROWSER_PARAMETER);
+        for (ITestResult result : context.getPassedTests().getAllResults()) {
+            failures.remove(key(result.getMethod(), browser));
+        }
+        for (ITestResult result : context.getFailedTests().getAllResults()) {
+            failures.remove(key(result.getMethod(), browser));
+        }
+        for (ITestResult result : context.getSkippedTests().getAllResults()) {
+            failures.remove(key(result.getMethod(), browser));
+        }
+
+        for (ITestResult result : context.getFailedTests().getAllResults()) {
+            ITestNGMethod method = result.getMethod();
+            TreeSet<Integer> rows = failures.computeIfAbsent(key(method, browser), k -> new TreeSet<>());
+            if (method.isDataDriven()) {
+                rows.addAll(method.getFailedInvocationNumbers());
+            }
+        }
+
+        // Skipped tests (e.g. after a setup failure) never verified anything, so rerun them too;
+        // attempts that were retried are not failures of their own
+        for (ITestResult result : context.getSkippedTests().getAllResults()) {
+            if (!result.wasRetried()) {
+                failures.computeIfAbsent(key(result.getMethod(), browser), k -> new TreeSet<>());
+            }
+        }
+
+        write(indexPath);
+    }
+
+    /**
+     * Load a persisted index
+     *
+     * @param indexPath Index file path
+     * @return Map of "className#methodName[#browser]" to failed rows, empty if no index exists
+     */
+    public static Map<String, List<Integer>> load(String indexPath) {
+        Map<String, List<Integer>> index = new LinkedHashMap<>();
+        File file = new File(indexPath);
+        if (!file.exists()) {
+            return index;
+        }
+
+        try {
+            JsonNode root = MAPPER.readTree(file);
+            for (JsonNode entry : root.path("failures")) {
+                String key = entry.get("class").asText() + "#" + entry.get("method").asText()
+                        + (entry.hasNonNull("browser") ? "#" + entry.get("browser").asText() : "");
+                List<Integer> rows = MAPPER.convertValue(entry.path("rows"),
+                        MAPPER.getTypeFactory().constructCollectionType(List.class, Integer.class));
+                index.put(key, rows);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read failed test index: " + indexPath, e);
+        }
+        return index;
+    }
+
+    private static void write(String indexPath) {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("generated", LocalDateTime.now().toString());
+        ArrayNode entries = root.putArray("failures");
+
+        for (Map.Entry<String, TreeSet<Integer>> failure : failures.entrySet()) {
+            String[] parts = failure.getKey().split("#", 3);
+            ObjectNode entry = entries.addObject();
+            entry.put("class", parts[0]);
+            entry.put("method", parts[1]);
+            if (parts.length > 2) {
+                entry.put("browser", parts[2]);
+            }
+            ArrayNode rows = entry.putArray("rows");
+            failure.getValue().forEach(rows::add);
+        }
+
+        try {
+            File file = new File(indexPath);
+            file.getParentFile().mkdirs();
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, root);
+        } catch (IOException e) {
+            log.warn("Failed to write failed test index: " + e.getMessage());
+        }
+    }
+
+    private static String key(ITestNGMethod method, String browser) {
+        String key = method.getRealClass().getName() + "#" + method.getMethodName();
+        return browser != null ? key + "#" + browser : key;
+    }
+}
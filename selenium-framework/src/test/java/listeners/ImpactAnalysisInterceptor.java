@@ -0,0 +1,88 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import utils.TestImpactAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TestNG method interceptor that runs only the tests affected by changed files
+ * Changed files come from impact.changed.files or a git diff against impact.base
+ * Registered through META-INF/services; selects nothing unless impact.enabled is set
+ * Author: Brian LaTorraca
+ */
+public class ImpactAnalysisInterceptor implements IMethodInterceptor {
+
+    private static final Logger log = LogManager.getLogger(ImpactAnalysisInterceptor.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.isImpactEnabled()) {
+            return methods;
+        }
+        List<String> changedFiles = getChangedFiles(config);
+        if (changedFiles == null) {
+            return methods;
+        }
+
+        TestImpactAnalyzer.ChangeSet changes = TestImpactAnalyzer.classifyChanges(changedFiles);
+        List<IMethodInstance> selected = new ArrayList<>();
+
+        if (changes.affectsAllTests()) {
+            log.info("Impact analysis: global changes " + changes.getGlobalChanges() + " - selecting all tests");
+            selected.addAll(methods);
+        } else {
+            TestImpactAnalyzer analyzer = new TestImpactAnalyzer(Thread.currentThread().getContextClassLoader());
+            Map<String, Boolean> affectedClasses = new LinkedHashMap<>();
+            for (IMethodInstance method : methods) {
+                String testClass = method.getMethod().getRealClass().getName();
+                boolean affected = affectedClasses.computeIfAbsent(testClass,
+                        name -> analyzer.isAffected(name, changes.getChangedClasses()));
+                if (affected) {
+                    selected.add(method);
+                }
+            }
+            log.info("Impact analysis: changed classes " + changes.getChangedClasses());
+        }
+
+        log.info("Impact analysis [" + context.getName() + "]: " + selected.size()
+                + " of " + methods.size() + " tests selected");
+        for (IMethodInstance method : selected) {
+            log.info("  " + method.getMethod().getQualifiedName());
+        }
+
+        if (config.isImpactDryRun()) {
+            log.info("Impact analysis dry run - no tests executed");
+            return new ArrayList<>();
+        }
+        return selected;
+    }
+
+    /**
+     * Resolve changed files from configuration
+     *
+     * @return Changed files, or null when impact analysis is not requested
+     */
+    private List<String> getChangedFiles(ConfigManager config) {
+        String files = config.getProperty("impact.changed.files");
+        if (files != null && !files.isEmpty()) {
+            return Arrays.asList(files.split(","));
+        }
+
+        String base = config.getProperty("impact.base");
+        if (base != null && !base.isEmpty()) {
+            return TestImpactAnalyzer.changedFilesFromGit(base);
+        }
+        return null;
+    }
+}
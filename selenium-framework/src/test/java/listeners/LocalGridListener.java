@@ -0,0 +1,50 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Sizes the suites of a local-grid run to the slots of the in-JVM standalone server,
+ * so the thread count and parallel mode of the suite XML do not leave slots idle.
+ * Suites without parallelism run their methods in parallel; tests-parallel suites also run
+ * the methods of each test in parallel, with live sessions still capped at the slot count.
+ * Author: Brian LaTorraca
+ */
+public class LocalGridListener implements IAlterSuiteListener {
+
+    private static final Logger log = LogManager.getLogger(LocalGridListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.isLocalGridEnabled()) {
+            return;
+        }
+
+        int slots = config.getLocalGridMaxSessions();
+        for (XmlSuite suite : suites) {
+            XmlSuite.ParallelMode parallel = suite.getParallel();
+            if (parallel == XmlSuite.ParallelMode.TESTS) {
+                // Every <test> runs at once and fills the slots with its methods; DriverManager caps live sessions
+                suite.setThreadCount(Math.max(1, suite.getTests().size()));
+                for (XmlTest test : suite.getTests()) {
+                    test.setParallel(XmlSuite.ParallelMode.METHODS);
+                    test.setThreadCount(slots);
+                }
+            } else {
+                if (parallel == null || parallel == XmlSuite.ParallelMode.NONE) {
+                    suite.setParallel(XmlSuite.ParallelMode.METHODS);
+                }
+                suite.setThreadCount(slots);
+            }
+            log.info("Local grid: suite " + suite.getName() + " runs " + slots + " browser sessions in parallel ("
+                    + (parallel == XmlSuite.ParallelMode.TESTS ? "tests and methods" : suite.getParallel()) + ")");
+        }
+    }
+}
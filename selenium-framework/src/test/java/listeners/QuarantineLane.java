@@ -0,0 +1,417 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves flaky test variants out of the suite into a quarantine lane: a separate, low-priority
+ * JVM started next to the main run, whose failures are reported but never fail the build.
+ * A variant is a test method with one data provider row on one browser. It is quarantined once
+ * its flakiness in the results history reaches quarantine.flakiness.threshold, and returns to the
+ * suite after quarantine.stable.runs consecutive passes; the lane keeps recording its results,
+ * so promotion is automatic. Variants that fail every time are regressions, not flaky, and stay.
+ * The same listener filters methods and data provider rows in the main run (quarantined variants
+ * removed) and in the lane (only quarantined variants kept). Enabled with quarantine.enabled.
+ * Author: Brian LaTorraca
+ */
+public class QuarantineLane implements ISuiteListener, IMethodInterceptor, IDataProviderInterceptor {
+
+    private static final Logger log = LogManager.getLogger(QuarantineLane.class);
+
+    /**
+     * System property set on the lane JVM; its listener keeps only the quarantined variants
+     */
+    static final String LANE_PROPERTY = "quarantine.lane";
+
+    private static final boolean lane = Boolean.getBoolean(LANE_PROPERTY);
+
+    // Quarantined variants as "class#method \t parameters \t browser"
+    private static final Set<String> quarantined = ConcurrentHashMap.newKeySet();
+    // Lane process per suite name
+    private static final Map<String, Process> lanes = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        ConfigManager config = ConfigManager.getInstance();
+        Path dir = Paths.get(config.getQuarantineDir()).toAbsolutePath();
+        if (lane) {
+            quarantined.addAll(readList(dir.resolve("quarantined.txt")));
+            return;
+        }
+        if (!config.isQuarantineEnabled()) {
+            return;
+        }
+
+        Long running = runningLane(dir);
+        if (running != null) {
+            log.warn("Quarantine lane of a previous run is still running (pid " + running
+                    + ") - quarantined tests run in the main suite this time");
+            return;
+        }
+
+        quarantined.addAll(findQuarantined(config, dir));
+        XmlSuite laneSuite = buildLane(suite.getXmlSuite(), config.getQuarantineThreads());
+        if (!laneSuite.getTests().isEmpty()) {
+            startLane(suite.getName(), laneSuite, config, dir);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Process process = lanes.remove(suite.getName());
+        if (process == null) {
+            return;
+        }
+
+        // Wait briefly only; a slow lane keeps running on its own and must not hold up the main result
+        ConfigManager config = ConfigManager.getInstance();
+        Path dir = Paths.get(config.getQuarantineDir()).toAbsolutePath();
+        try {
+            if (!process.waitFor(config.getQuarantineWaitSeconds(), TimeUnit.SECONDS)) {
+                log.info("Quarantine lane still running (pid " + process.pid() + ", log " + dir.resolve("lane.log")
+                        + "); its results are added to the history by the next run");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        logLaneResults(dir);
+        importLaneHistory(dir);
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (quarantined.isEmpty() && !lane) {
+            return methods;
+        }
+
+        String browser = ResultsHistory.browser(context);
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String key = method.getRealClass().getName() + "#" + method.getMethodName();
+            // Rows of data-driven methods are filtered one by one when the data provider runs
+            boolean keep = method.isDataDriven()
+                    ? !lane || hasQuarantinedRow(key, browser)
+                    : lane == quarantined.contains(variant(key, null, browser));
+            if (keep) {
+                selected.add(instance);
+            } else if (!lane) {
+                log.info("Quarantined, running in the lane: " + key + " [" + browser + "]");
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> rows, IDataProviderMethod dataProvider,
+                                        ITestNGMethod method, ITestContext context) {
+        if (quarantined.isEmpty() && !lane) {
+            return rows;
+        }
+
+        String key = method.getRealClass().getName() + "#" + method.getMethodName();
+        String browser = ResultsHistory.browser(context);
+        List<Object[]> selected = new ArrayList<>();
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            boolean matches = quarantined.contains(variant(key, ResultsHistory.parameters(row), browser));
+            if (lane == matches) {
+                selected.add(row);
+            } else if (!lane) {
+                log.info("Quarantined, running in the lane: " + key + Arrays.deepToString(row) + " [" + browser + "]");
+            }
+        }
+        return selected.iterator();
+    }
+
+    /**
+     * Test variants whose recent results flip between pass and fail, minus those that have passed
+     * often enough in a row since to return to the suite
+     */
+    private Set<String> findQuarantined(ConfigManager config, Path dir) {
+        Set<String> found = new TreeSet<>();
+        ResultsHistory history = ResultsHistory.getInstance();
+        if (history == null) {
+            return found;
+        }
+        importLaneHistory(dir);
+        try {
+            for (ResultsHistory.Flakiness flakiness : history.getFlakiness()) {
+                if (flakiness.runs >= config.getQuarantineMinRuns()
+                        && flakiness.getRate() >= config.getQuarantineFlakinessThreshold()
+                        && flakiness.passStreak < config.getQuarantineStableRuns()) {
+                    found.add(variant(flakiness.testKey, flakiness.parameters, flakiness.browser));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to read flakiness from results history, nothing quarantined: " + e.getMessage());
+            return new TreeSet<>();
+        }
+
+        reportChanges(dir.resolve("quarantined.txt"), found);
+        return found;
+    }
+
+    /**
+     * Move results the lane recorded in its own history file into the main history
+     */
+    private void importLaneHistory(Path dir) {
+        ResultsHistory history = ResultsHistory.getInstance();
+        if (history == null) {
+            return;
+        }
+        try {
+            int moved = history.importFrom(dir.resolve("history").resolve("results").toString());
+            if (moved > 0) {
+                log.info("Added " + moved + " quarantine lane result(s) to the results history");
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to import quarantine lane history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Log variants entering and leaving quarantine since the previous run and persist the current list
+     */
+    private void reportChanges(Path listFile, Set<String> found) {
+        Set<String> previous = readList(listFile);
+        try {
+            Files.createDirectories(listFile.getParent());
+            Files.write(listFile, found, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Failed to update quarantine list " + listFile + ": " + e.getMessage());
+        }
+        for (String variant : found) {
+            log.info((previous.contains(variant) ? "Quarantined: " : "Newly quarantined: ") + describe(variant));
+        }
+        for (String variant : previous) {
+            if (!found.contains(variant)) {
+                log.info("Promoted back to the suite after stable runs: " + describe(variant));
+            }
+        }
+    }
+
+    /**
+     * Lane suite with the tests, parameters and listeners of the main suite, limited to the methods
+     * that have quarantined variants; the lane's own listener narrows them down to those variants
+     */
+    private XmlSuite buildLane(XmlSuite suite, int threads) {
+        XmlSuite laneSuite = new XmlSuite();
+        laneSuite.setName(suite.getName() + " (quarantine)");
+        laneSuite.setParameters(suite.getParameters());
+        laneSuite.setParallel(XmlSuite.ParallelMode.METHODS);
+        laneSuite.setThreadCount(threads);
+        laneSuite.setListeners(suite.getListeners());
+        if (quarantined.isEmpty()) {
+            return laneSuite;
+        }
+
+        Set<String> methods = quarantined.stream()
+                .map(variant -> variant.split("\t", -1)[0])
+                .collect(Collectors.toSet());
+        for (XmlTest test : suite.getTests()) {
+            List<XmlClass> laneClasses = new ArrayList<>();
+            XmlTest laneTest = new XmlTest(laneSuite);
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                List<XmlInclude> includes = new ArrayList<>();
+                for (String method : quarantinedMethods(xmlClass, methods)) {
+                    includes.add(new XmlInclude(method, includes.size()));
+                }
+                if (!includes.isEmpty()) {
+                    XmlClass laneClass = new XmlClass(xmlClass.getName(), false);
+                    laneClass.setXmlTest(laneTest);
+                    laneClass.setIncludedMethods(includes);
+                    laneClasses.add(laneClass);
+                }
+            }
+
+            if (laneClasses.isEmpty()) {
+                laneSuite.getTests().remove(laneTest);
+            } else {
+                laneTest.setName(test.getName());
+                laneTest.setParameters(test.getLocalParameters());
+                laneTest.setXmlClasses(laneClasses);
+            }
+        }
+        return laneSuite;
+    }
+
+    /**
+     * Methods of a class with quarantined variants that the suite would run
+     */
+    private List<String> quarantinedMethods(XmlClass xmlClass, Set<String> methods) {
+        String prefix = xmlClass.getName() + "#";
+        List<String> included = xmlClass.getIncludedMethods().stream()
+                .map(XmlInclude::getName)
+                .collect(Collectors.toList());
+        return methods.stream()
+                .filter(testKey -> testKey.startsWith(prefix))
+                .map(testKey -> testKey.substring(prefix.length()))
+                .filter(method -> included.isEmpty() || included.contains(method))
+                .filter(method -> !xmlClass.getExcludedMethods().contains(method))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Start the lane suite in its own JVM with lowered CPU priority. Reports, logs, journal, history
+     * and the rerun index of the lane go to quarantine.dir so they do not overwrite those of the main run.
+     * The lane is not stopped with the main run; the pid file keeps the next run from starting another.
+     */
+    private void startLane(String suiteName, XmlSuite laneSuite, ConfigManager config, Path dir) {
+        try {
+            Files.createDirectories(dir);
+            Files.deleteIfExists(dir.resolve("testng").resolve("testng-results.xml"));
+            Path suiteFile = dir.resolve("quarantine-suite.xml");
+            Files.write(suiteFile, laneSuite.toXml().getBytes(StandardCharsets.UTF_8));
+
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            // Runtime overrides of the main run, e.g. -Dbrowser=firefox, apply to the lane as well
+            for (String key : config.getPropertyNames()) {
+                String value = System.getProperty(key);
+                if (value != null) {
+                    command.add("-D" + key + "=" + value);
+                }
+            }
+            command.add("-D" + LANE_PROPERTY + "=true");
+            command.add("-Dquarantine.dir=" + dir);
+            command.add("-Dreport.path=" + dir.resolve("reports"));
+            command.add("-Dlog.file.path=" + dir.resolve("automation.jsonl"));
+            command.add("-Dhistory.db.path=" + dir.resolve("history").resolve("results"));
+            command.add("-Djournal.dir=" + dir.resolve("journal"));
+            command.add("-Drerun.index.path=" + dir.resolve("failed-tests.json"));
+            command.add("-Dstartup.report.path=" + dir.resolve("startup-times.csv"));
+            command.add("-cp");
+            // Surefire runs tests from a manifest-only jar; its property holds the real class path
+            command.add(System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")));
+            command.add("org.testng.TestNG");
+            command.add("-d");
+            command.add(dir.resolve("testng").toString());
+            command.add(suiteFile.toString());
+
+            Process process = start(command, dir.resolve("lane.log").toFile());
+            Files.write(dir.resolve("lane.pid"), String.valueOf(process.pid()).getBytes(StandardCharsets.UTF_8));
+            lanes.put(suiteName, process);
+            log.info("Quarantine lane started for " + quarantined.size() + " test variant(s) of " + suiteName
+                    + " (pid " + process.pid() + ", log " + dir.resolve("lane.log") + ")");
+        } catch (IOException e) {
+            log.warn("Failed to start quarantine lane, quarantined tests are not run: " + e.getMessage());
+        }
+    }
+
+    private Process start(List<String> command, File logFile) throws IOException {
+        if (!System.getProperty("os.name").toLowerCase().contains("win")) {
+            List<String> niced = new ArrayList<>(Arrays.asList("nice", "-n", "10"));
+            niced.addAll(command);
+            try {
+                return new ProcessBuilder(niced).redirectErrorStream(true).redirectOutput(logFile).start();
+            } catch (IOException e) {
+                // No nice on this machine; run at normal priority
+            }
+        }
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile).start();
+    }
+
+    /**
+     * Pid of a lane started by an earlier run that has not finished yet
+     */
+    private Long runningLane(Path dir) {
+        Path pidFile = dir.resolve("lane.pid");
+        try {
+            if (!Files.exists(pidFile)) {
+                return null;
+            }
+            long pid = Long.parseLong(new String(Files.readAllBytes(pidFile), StandardCharsets.UTF_8).trim());
+            boolean alive = ProcessHandle.of(pid)
+                    .map(handle -> handle.isAlive() && handle.info().commandLine().orElse("").contains(LANE_PROPERTY))
+                    .orElse(false);
+            return alive ? pid : null;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Log the lane's totals from its testng-results.xml; failures here never fail the build
+     */
+    private void logLaneResults(Path dir) {
+        File results = dir.resolve("testng").resolve("testng-results.xml").toFile();
+        if (!results.exists()) {
+            log.warn("Quarantine lane produced no results, see " + dir.resolve("lane.log"));
+            return;
+        }
+        try {
+            Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(results).getDocumentElement();
+            log.info("Quarantine lane: " + root.getAttribute("passed") + " passed, " + root.getAttribute("failed")
+                    + " failed, " + root.getAttribute("skipped") + " skipped (not counted in the build result); "
+                    + "report in " + dir.resolve("reports"));
+        } catch (Exception e) {
+            log.warn("Failed to read quarantine lane results " + results + ": " + e.getMessage());
+        }
+    }
+
+    private boolean hasQuarantinedRow(String key, String browser) {
+        String prefix = key + "\t";
+        String suffix = "\t" + browser;
+        return quarantined.stream().anyMatch(variant -> variant.startsWith(prefix) && variant.endsWith(suffix)
+                && !variant.equals(variant(key, null, browser)));
+    }
+
+    private static Set<String> readList(Path listFile) {
+        Set<String> variants = new TreeSet<>();
+        try {
+            if (Files.exists(listFile)) {
+                variants.addAll(Files.readAllLines(listFile, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read quarantine list " + listFile + ": " + e.getMessage());
+        }
+        variants.remove("");
+        return variants;
+    }
+
+    private static String variant(String testKey, String parameters, String browser) {
+        return testKey + "\t" + (parameters != null ? parameters : "") + "\t" + browser;
+    }
+
+    private static String describe(String variant) {
+        String[] parts = variant.split("\t", -1);
+        return parts[0] + parts[1] + " [" + parts[2] + "]";
+    }
+}
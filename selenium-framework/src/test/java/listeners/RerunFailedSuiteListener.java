@@ -0,0 +1,98 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the tests of the rerun-failed suite with the methods and data provider rows
+ * recorded in the failed test index of the previous run
+ * Author: Brian LaTorraca
+ */
+public class RerunFailedSuiteListener implements IAlterSuiteListener {
+
+    private static final Logger log = LogManager.getLogger(RerunFailedSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String indexPath = ConfigManager.getInstance().getRerunIndexPath();
+        Map<String, List<Integer>> index = FailedTestIndex.load(indexPath);
+
+        if (index.isEmpty()) {
+            log.info("No failed tests recorded in " + indexPath + " - nothing to rerun");
+        }
+
+        // One test block per browser of a matrix run; entries without a browser share one block
+        Map<String, Map<String, List<Integer>>> byBrowser = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> failure : index.entrySet()) {
+            String[] parts = failure.getKey().split("#", 3);
+            byBrowser.computeIfAbsent(parts.length > 2 ? parts[2] : "", browser -> new LinkedHashMap<>())
+                    .put(parts[0] + "#" + parts[1], failure.getValue());
+        }
+
+        for (XmlSuite suite : suites) {
+            // An empty index leaves the suite without tests rather than with an empty <test>
+            suite.getTests().clear();
+
+            for (Map.Entry<String, Map<String, List<Integer>>> group : byBrowser.entrySet()) {
+                String browser = group.getKey();
+                XmlTest test = new XmlTest(suite);
+                test.setName(browser.isEmpty() ? "Rerun Failed Tests" : "Rerun Failed Tests [" + browser + "]");
+                test.setPreserveOrder(true);
+                if (!browser.isEmpty()) {
+                    Map<String, String> parameters = new LinkedHashMap<>(test.getLocalParameters());
+                    parameters.put(BrowserMatrixListener.BROWSER_PARAMETER, browser);
+                    test.setParameters(parameters);
+                }
+                test.setXmlClasses(buildClasses(test, group.getValue(), browser));
+            }
+
+            writeGeneratedSuite(suite, new File(indexPath).getParentFile());
+        }
+    }
+
+    private List<XmlClass> buildClasses(XmlTest test, Map<String, List<Integer>> index, String browser) {
+        Map<String, XmlClass> classes = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> failure : index.entrySet()) {
+            String[] parts = failure.getKey().split("#", 2);
+            XmlClass xmlClass = classes.computeIfAbsent(parts[0], name -> {
+                XmlClass created = new XmlClass(name, false);
+                created.setXmlTest(test);
+                return created;
+            });
+
+            List<XmlInclude> includes = new ArrayList<>(xmlClass.getIncludedMethods());
+            includes.add(new XmlInclude(parts[1], failure.getValue(), includes.size()));
+            xmlClass.setIncludedMethods(includes);
+
+            log.info("Rerunning: " + failure.getKey() + (browser.isEmpty() ? "" : " [" + browser + "]")
+                    + (failure.getValue().isEmpty() ? "" : " rows " + failure.getValue()));
+        }
+        return new ArrayList<>(classes.values());
+    }
+
+    private void writeGeneratedSuite(XmlSuite suite, File directory) {
+        try {
+            directory.mkdirs();
+            File suiteFile = new File(directory, "rerun-failed-suite.xml");
+            Files.write(suiteFile.toPath(), suite.toXml().getBytes(StandardCharsets.UTF_8));
+            log.info("Generated rerun suite: " + suiteFile.getPath());
+        } catch (IOException e) {
+            log.warn("Failed to write generated rerun suite: " + e.getMessage());
+        }
+    }
+}
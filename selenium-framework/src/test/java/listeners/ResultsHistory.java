@@ -0,0 +1,413 @@
+package listeners;
+
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Historical test results in an embedded H2 database file (no server process).
+ * TestListener records every finished test with its duration, outcome, attempt,
+ * browser and environment; the query methods and main() report duration trends,
+ * slowest tests and flakiness over the last history.window.runs results of each test.
+ * The database is open in one JVM at a time, so query it after the test run.
+ *
+ * @author Brian LaTorraca
+ */
+public class ResultsHistory {
+
+    private static final Logger log = LogManager.getLogger(ResultsHistory.class);
+
+    private static final String SCHEMA = "CREATE TABLE IF NOT EXISTS test_results ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "run_id VARCHAR(64) NOT NULL, "
+            + "finished_at TIMESTAMP NOT NULL, "
+            + "test_key VARCHAR(512) NOT NULL, "
+            + "parameters VARCHAR(1024), "
+            + "browser VARCHAR(32), "
+            + "environment VARCHAR(32), "
+            + "status VARCHAR(8) NOT NULL, "
+            + "attempt INT NOT NULL, "
+            + "duration_ms BIGINT NOT NULL, "
+            + "error VARCHAR(1024))";
+    private static final String INDEX = "CREATE INDEX IF NOT EXISTS test_results_key ON test_results(test_key, id)";
+    private static final String COLUMNS = "run_id, finished_at, test_key, parameters, "
+            + "browser, environment, status, attempt, duration_ms, error";
+    private static final String INSERT = "INSERT INTO test_results (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Last results of each test variant (method, data provider row, browser), newest first
+    private static final String WINDOW = "SELECT * FROM (SELECT r.*, ROW_NUMBER() OVER "
+            + "(PARTITION BY test_key, parameters, browser ORDER BY id DESC) AS recency FROM test_results r) "
+            + "WHERE recency <= ?";
+
+    private static ResultsHistory instance;
+
+    private final Connection connection;
+    private final String runId;
+    private final String environment;
+    private final int windowRuns;
+    // Attempts per test invocation in this run, so retries of the same invocation are numbered
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+    /**
+     * Flakiness of one test variant over its recent results
+     */
+    public static class Flakiness {
+        public final String testKey;
+        // Data provider row, null for methods without parameters
+        public final String parameters;
+        public final String browser;
+        public final int runs;
+        public final int failures;
+        public final int flips;
+        // Passes since the last failure
+        public final int passStreak;
+
+        Flakiness(String testKey, String parameters, String browser, int runs, int failures, int flips, int passStreak) {
+            this.testKey = testKey;
+            this.parameters = parameters;
+            this.browser = browser;
+            this.runs = runs;
+            this.failures = failures;
+            this.flips = flips;
+            this.passStreak = passStreak;
+        }
+
+        /**
+         * Share of consecutive results that changed outcome; 0 for stable passing or failing tests
+         *
+         * @return Flip rate between 0 and 1
+         */
+        public double getRate() {
+            return runs > 1 ? (double) flips / (runs - 1) : 0;
+        }
+
+        @Override
+        public String toString() {
+            return testKey + (parameters != null ? parameters : "") + " [" + browser + "]";
+        }
+    }
+
+    private ResultsHistory(String dbPath, String environment, int windowRuns) throws SQLException {
+        // Embedded only: the file is locked by this JVM until it exits. H2 only accepts absolute file paths.
+        this.connection = DriverManager.getConnection("jdbc:h2:file:" + Paths.get(dbPath).toAbsolutePath(), "sa", "");
+        this.runId = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "-" + ProcessHandle.current().pid();
+        this.environment = environment;
+        this.windowRuns = windowRuns;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SCHEMA);
+            statement.execute(INDEX);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "results-history-close"));
+    }
+
+    /**
+     * Get the history database of this JVM, opening it on first use
+     *
+     * @return ResultsHistory, or null if history is disabled or the database cannot be opened
+     */
+    public static synchronized ResultsHistory getInstance() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (instance == null && config.isHistoryEnabled()) {
+            try {
+                instance = new ResultsHistory(config.getHistoryDbPath(), config.getEnvironment(),
+                        config.getHistoryWindowRuns());
+            } catch (SQLException e) {
+                log.warn("Results history disabled, unable to open " + config.getHistoryDbPath() + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Record a finished test. Results TestNG retried are stored as "retry" with their attempt number.
+     *
+     * @param result Test result
+     */
+    public void record(ITestResult result) {
+        String parameterText = parameters(result.getParameters());
+        String browser = browser(result.getTestContext());
+        String testKey = key(result);
+        int attempt = attempts.computeIfAbsent(testKey + parameterText + browser, k -> new AtomicInteger()).incrementAndGet();
+        String error = result.getThrowable() != null ? String.valueOf(result.getThrowable().getMessage()) : null;
+
+        synchronized (connection) {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                insert.setString(1, runId);
+                insert.setTimestamp(2, new Timestamp(result.getEndMillis()));
+                insert.setString(3, testKey);
+                insert.setString(4, parameterText);
+                insert.setString(5, browser);
+                insert.setString(6, environment);
+                insert.setString(7, status(result));
+                insert.setInt(8, attempt);
+                insert.setLong(9, result.getEndMillis() - result.getStartMillis());
+                insert.setString(10, truncate(error));
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                log.warn("Failed to record " + testKey + " in results history: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flakiness of every test variant over its last history.window.runs results, most flaky first.
+     * A variant is a method with one data provider row on one browser, so a row or browser that
+     * fails every time is a stable failure, not flakiness of the method.
+     * Skipped results are ignored; retried attempts count as failures.
+     *
+     * @return Flakiness per test variant
+     * @throws SQLException if the query fails
+     */
+    public List<Flakiness> getFlakiness() throws SQLException {
+        Map<List<String>, List<String>> outcomes = new LinkedHashMap<>();
+        synchronized (connection) {
+            try (PreparedStatement query = connection.prepareStatement(
+                    "SELECT test_key, parameters, browser, status FROM (" + WINDOW + ") WHERE status <> 'skip' "
+                            + "ORDER BY test_key, parameters, browser, id")) {
+                query.setInt(1, windowRuns);
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        List<String> variant = Arrays.asList(rows.getString(1), rows.getString(2), rows.getString(3));
+                        outcomes.computeIfAbsent(variant, k -> new ArrayList<>()).add(rows.getString(4));
+                    }
+                }
+            }
+        }
+
+        List<Flakiness> flakiness = new ArrayList<>();
+        outcomes.forEach((variant, statuses) -> {
+            int failures = 0;
+            int flips = 0;
+            int passStreak = 0;
+            for (int i = 0; i < statuses.size(); i++) {
+                boolean passed = "pass".equals(statuses.get(i));
+                passStreak = passed ? passStreak + 1 : 0;
+                if (!passed) {
+                    failures++;
+                }
+                if (i > 0 && passed != "pass".equals(statuses.get(i - 1))) {
+                    flips++;
+                }
+            }
+            flakiness.add(new Flakiness(variant.get(0), variant.get(1), variant.get(2),
+                    statuses.size(), failures, flips, passStreak));
+        });
+        flakiness.sort((a, b) -> Double.compare(b.getRate(), a.getRate()));
+        return flakiness;
+    }
+
+    /**
+     * Tests with the highest median duration over their recent passing results
+     *
+     * @param limit Number of tests
+     * @return Rows of test key, runs, p50 ms and p95 ms
+     * @throws SQLException if the query fails
+     */
+    public List<Object[]> getSlowest(int limit) throws SQLException {
+        return query("SELECT test_key, COUNT(*), "
+                + "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY duration_ms), "
+                + "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY duration_ms) "
+                + "FROM (" + WINDOW + ") WHERE status = 'pass' GROUP BY test_key ORDER BY 3 DESC LIMIT ?",
+                windowRuns, limit);
+    }
+
+    /**
+     * Daily duration percentiles of passing results, of one test or of all tests
+     *
+     * @param testKey Test key ("class#method"), or null for all tests
+     * @return Rows of day, runs, p50 ms and p95 ms, oldest first
+     * @throws SQLException if the query fails
+     */
+    public List<Object[]> getDurationTrend(String testKey) throws SQLException {
+        return query("SELECT CAST(finished_at AS DATE), COUNT(*), "
+                + "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY duration_ms), "
+                + "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY duration_ms) "
+                + "FROM test_results WHERE status = 'pass' AND (? IS NULL OR test_key = ?) "
+                + "GROUP BY CAST(finished_at AS DATE) ORDER BY 1", testKey, testKey);
+    }
+
+    private List<Object[]> query(String sql, Object... parameters) throws SQLException {
+        List<Object[]> result = new ArrayList<>();
+        synchronized (connection) {
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    query.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet rows = query.executeQuery()) {
+                    int columns = rows.getMetaData().getColumnCount();
+                    while (rows.next()) {
+                        Object[] row = new Object[columns];
+                        for (int i = 0; i < columns; i++) {
+                            row[i] = rows.getObject(i + 1);
+                        }
+                        result.add(row);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Move the results recorded in another history file, e.g. by the quarantine lane, into this one
+     *
+     * @param dbPath Path of the other database, without the H2 file extension
+     * @return Number of results moved; 0 if the other database does not exist
+     * @throws SQLException if the other database cannot be opened, e.g. while its JVM still runs
+     */
+    public int importFrom(String dbPath) throws SQLException {
+        String url = "jdbc:h2:file:" + Paths.get(dbPath).toAbsolutePath() + ";IFEXISTS=TRUE";
+        if (!Files.exists(Paths.get(dbPath + ".mv.db"))) {
+            return 0;
+        }
+        int moved = 0;
+        synchronized (connection) {
+            try (Connection other = DriverManager.getConnection(url, "sa", "");
+                 Statement select = other.createStatement();
+                 ResultSet rows = select.executeQuery("SELECT id, " + COLUMNS + " FROM test_results ORDER BY id");
+                 PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                long lastId = 0;
+                while (rows.next()) {
+                    lastId = rows.getLong(1);
+                    for (int i = 1; i <= 10; i++) {
+                        insert.setObject(i, rows.getObject(i + 1));
+                    }
+                    insert.addBatch();
+                    moved++;
+                }
+                insert.executeBatch();
+                try (PreparedStatement delete = other.prepareStatement("DELETE FROM test_results WHERE id <= ?")) {
+                    delete.setLong(1, lastId);
+                    delete.executeUpdate();
+                }
+            }
+        }
+        return moved;
+    }
+
+    private void close() {
+        synchronized (connection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Failed to close results history: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Key shared with the rerun index and the quarantine list
+     *
+     * @param result Test result
+     * @return "className#methodName"
+     */
+    static String key(ITestResult result) {
+        return result.getMethod().getRealClass().getName() + "#" + result.getMethod().getMethodName();
+    }
+
+    /**
+     * Data provider row of a result as stored in the history
+     *
+     * @param parameters Test method parameters
+     * @return Parameter text, or null for a method without parameters
+     */
+    static String parameters(Object[] parameters) {
+        return parameters != null && parameters.length > 0 ? truncate(Arrays.deepToString(parameters)) : null;
+    }
+
+    /**
+     * Browser of a test as stored in the history: the matrix browser, else the configured browser
+     *
+     * @param context Test context
+     * @return Browser name
+     */
+    static String browser(ITestContext context) {
+        String browser = context.getCurrentXmlTest().getParameter(BrowserMatrixListener.BROWSER_PARAMETER);
+        return browser != null ? browser : ConfigManager.getInstance().getBrowser();
+    }
+
+    private static String status(ITestResult result) {
+        if (result.wasRetried()) {
+            return "retry";
+        }
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return "pass";
+            case ITestResult.FAILURE:
+                return "fail";
+            default:
+                return "skip";
+        }
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > 1024 ? text.substring(0, 1024) : text;
+    }
+
+    /**
+     * Query the history: flaky [n], slowest [n] or trend [className#methodName]
+     *
+     * @param args Report name and optional argument; defaults to flaky
+     * @throws SQLException if the database cannot be queried
+     */
+    public static void main(String[] args) throws SQLException {
+        ResultsHistory history = getInstance();
+        if (history == null) {
+            throw new IllegalStateException("Results history is disabled (history.enabled=false)");
+        }
+        String report = args.length > 0 ? args[0] : "flaky";
+        String argument = args.length > 1 ? args[1] : null;
+        switch (report) {
+            case "flaky":
+                log.info(String.format("Flakiness over the last %d results per test, row and browser:", history.windowRuns));
+                log.info(String.format("%-6s %-5s %-5s %s", "RATE", "RUNS", "FAILS", "TEST"));
+                history.getFlakiness().stream()
+                        .filter(flakiness -> flakiness.flips > 0)
+                        .limit(argument != null ? Integer.parseInt(argument) : 20)
+                        .forEach(flakiness -> log.info(String.format("%-6.2f %-5d %-5d %s",
+                                flakiness.getRate(), flakiness.runs, flakiness.failures, flakiness)));
+                break;
+            case "slowest":
+                log.info(String.format("%-9s %-9s %-5s %s", "P50 MS", "P95 MS", "RUNS", "TEST"));
+                for (Object[] row : history.getSlowest(argument != null ? Integer.parseInt(argument) : 20)) {
+                    log.info(String.format("%-9.0f %-9.0f %-5s %s", toDouble(row[2]), toDouble(row[3]), row[1], row[0]));
+                }
+                break;
+            case "trend":
+                log.info("Daily duration of " + (argument != null ? argument : "all tests") + ":");
+                log.info(String.format("%-10s %-9s %-9s %s", "DAY", "P50 MS", "P95 MS", "RUNS"));
+                for (Object[] row : history.getDurationTrend(argument)) {
+                    log.info(String.format("%-10s %-9.0f %-9.0f %s", row[0], toDouble(row[2]), toDouble(row[3]), row[1]));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown report " + report + "; use flaky, slowest or trend");
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0;
+    }
+}
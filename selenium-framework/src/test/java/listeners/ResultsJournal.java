@@ -0,0 +1,329 @@
+package listeners;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of test start/finish events, one compact JSON line per event.
+ * Each event is written to the file as it happens, so it survives the JVM being killed;
+ * fsync is batched on a background thread. A run without an "end" event was cut short,
+ * and its started-but-unfinished tests are reported as interrupted on replay.
+ * Written by TestListener; replay with main() to rebuild a summary and a JUnit XML report.
+ *
+ * @author Brian LaTorraca
+ */
+public class ResultsJournal {
+
+    private static final Logger log = LogManager.getLogger(ResultsJournal.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ID_ATTRIBUTE = "journal.id";
+
+    private static ResultsJournal instance;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicBoolean unsynced = new AtomicBoolean();
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "results-journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ResultsJournal(Path file, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "results-journal-close"));
+
+        ObjectNode run = event("run");
+        run.put("pid", ProcessHandle.current().pid());
+        append(run);
+    }
+
+    /**
+     * Get the journal of this JVM, creating a new journal file on first use
+     *
+     * @return ResultsJournal, or null if journaling is disabled or the file cannot be created
+     */
+    public static synchronized ResultsJournal getInstance() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (instance == null && config.isJournalEnabled()) {
+            Path file = Paths.get(config.getJournalDir(),
+                    "run-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + ".jsonl");
+            try {
+                Files.createDirectories(file.getParent());
+                instance = new ResultsJournal(file, config.getJournalSyncIntervalMillis());
+                log.info("Results journal: " + file);
+            } catch (IOException e) {
+                log.warn("Results journal disabled, unable to create " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Record that a test started
+     *
+     * @param result Test result
+     */
+    public void testStarted(ITestResult result) {
+        long id = nextId.incrementAndGet();
+        result.setAttribute(ID_ATTRIBUTE, id);
+        ObjectNode event = event("start");
+        event.put("id", id);
+        event.put("name", testName(result));
+        event.put("thread", Thread.currentThread().getName());
+        append(event);
+    }
+
+    /**
+     * Record the outcome of a test; tests skipped before they started get an id here
+     *
+     * @param result Test result
+     */
+    public void testFinished(ITestResult result) {
+        Object id = result.getAttribute(ID_ATTRIBUTE);
+        ObjectNode event = event(status(result.getStatus()));
+        event.put("id", id != null ? (Long) id : nextId.incrementAndGet());
+        event.put("name", testName(result));
+        event.put("ms", result.getEndMillis() - result.getStartMillis());
+        if (result.getThrowable() != null) {
+            event.put("error", String.valueOf(result.getThrowable().getMessage()));
+        }
+        append(event);
+    }
+
+    /**
+     * Write one event line with a single write call; no user-space buffer is held back
+     */
+    private void append(ObjectNode event) {
+        try {
+            byte[] line = (MAPPER.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            synchronized (channel) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            unsynced.set(true);
+        } catch (IOException e) {
+            log.warn("Failed to append to results journal " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flush written events to disk; batched so tests never wait for fsync
+     */
+    private void sync() {
+        if (!unsynced.getAndSet(false)) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("Failed to sync results journal " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void close() {
+        syncer.shutdownNow();
+        append(event("end"));
+        sync();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close results journal " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static ObjectNode event(String type) {
+        ObjectNode event = MAPPER.createObjectNode();
+        event.put("t", System.currentTimeMillis());
+        event.put("e", type);
+        return event;
+    }
+
+    private static String testName(ITestResult result) {
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        if (parameters != null && parameters.length > 0) {
+            name += Arrays.deepToString(parameters);
+        }
+        String browser = result.getTestContext().getCurrentXmlTest().getParameter(BrowserMatrixListener.BROWSER_PARAMETER);
+        return browser != null ? name + " [" + browser + "]" : name;
+    }
+
+    private static String status(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "pass";
+            case ITestResult.FAILURE:
+                return "fail";
+            default:
+                return "skip";
+        }
+    }
+
+    /**
+     * Final state of one test rebuilt from the journal
+     */
+    static class ReplayedTest {
+        final String name;
+        String status = "interrupted";
+        long millis;
+        String error;
+
+        ReplayedTest(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Rebuild test outcomes from a journal file. A torn last line from a killed JVM is ignored.
+     *
+     * @param journal Journal file
+     * @param completed Set to true if the run wrote its end event
+     * @return Tests by id in start order
+     * @throws IOException if the journal cannot be read
+     */
+    static Map<Long, ReplayedTest> replay(Path journal, AtomicBoolean completed) throws IOException {
+        Map<Long, ReplayedTest> tests = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            JsonNode event;
+            try {
+                event = MAPPER.readTree(line);
+            } catch (IOException e) {
+                continue;
+            }
+            if (event == null || !event.has("e")) {
+                continue;
+            }
+            String type = event.get("e").asText();
+            if ("end".equals(type)) {
+                completed.set(true);
+            } else if (event.has("id")) {
+                ReplayedTest test = tests.computeIfAbsent(event.get("id").asLong(),
+                        id -> new ReplayedTest(event.path("name").asText()));
+                if (!"start".equals(type)) {
+                    test.status = type;
+                    test.millis = event.path("ms").asLong();
+                    test.error = event.has("error") ? event.get("error").asText() : null;
+                }
+            }
+        }
+        return tests;
+    }
+
+    /**
+     * Replay a journal: log a summary and write a JUnit XML report next to it.
+     * Without an argument the newest journal in journal.dir is replayed.
+     *
+     * @param args Optional journal file path
+     * @throws IOException if the journal cannot be read or the report written
+     */
+    public static void main(String[] args) throws IOException {
+        Path journal = args.length > 0 ? Paths.get(args[0]) : newestJournal()
+                .orElseThrow(() -> new IllegalStateException("No journal found in " + ConfigManager.getInstance().getJournalDir()));
+
+        AtomicBoolean completed = new AtomicBoolean();
+        Map<Long, ReplayedTest> tests = replay(journal, completed);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (ReplayedTest test : tests.values()) {
+            counts.merge(test.status, 1, Integer::sum);
+            if (!"pass".equals(test.status)) {
+                log.info(String.format("%-12s %s%s", test.status.toUpperCase(), test.name,
+                        test.error != null ? " - " + test.error : ""));
+            }
+        }
+        log.info("Journal " + journal + ": " + tests.size() + " tests " + counts
+                + (completed.get() ? "" : " - run did not complete (JVM ended without closing the journal)"));
+
+        Path report = journal.resolveSibling("TEST-" + journal.getFileName().toString().replace(".jsonl", "") + ".xml");
+        writeJUnitReport(journal.getFileName().toString(), tests, report);
+        log.info("JUnit report: " + report);
+    }
+
+    private static Optional<Path> newestJournal() throws IOException {
+        Path dir = Paths.get(ConfigManager.getInstance().getJournalDir());
+        if (!Files.isDirectory(dir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jsonl"))
+                    .max(Comparator.comparing(path -> path.getFileName().toString()));
+        }
+    }
+
+    private static void writeJUnitReport(String suiteName, Map<Long, ReplayedTest> tests, Path report) throws IOException {
+        long failures = tests.values().stream().filter(test -> "fail".equals(test.status)).count();
+        long errors = tests.values().stream().filter(test -> "interrupted".equals(test.status)).count();
+        long skipped = tests.values().stream().filter(test -> "skip".equals(test.status)).count();
+        double seconds = tests.values().stream().mapToLong(test -> test.millis).sum() / 1000.0;
+
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write(String.format(Locale.ROOT, "<testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" errors=\"%d\" skipped=\"%d\" time=\"%.3f\">%n",
+                    escape(suiteName), tests.size(), failures, errors, skipped, seconds));
+            for (ReplayedTest test : tests.values()) {
+                int dot = test.name.indexOf('.');
+                String className = dot > 0 ? test.name.substring(0, dot) : "";
+                writer.write(String.format(Locale.ROOT, "  <testcase classname=\"%s\" name=\"%s\" time=\"%.3f\"",
+                        escape(className), escape(test.name.substring(dot + 1)), test.millis / 1000.0));
+                switch (test.status) {
+                    case "fail":
+                        writer.write(">\n    <failure message=\"" + escape(String.valueOf(test.error)) + "\"/>\n  </testcase>\n");
+                        break;
+                    case "skip":
+                        writer.write(">\n    <skipped/>\n  </testcase>\n");
+                        break;
+                    case "interrupted":
+                        writer.write(">\n    <error message=\"JVM ended before the test finished\"/>\n  </testcase>\n");
+                        break;
+                    default:
+                        writer.write("/>\n");
+                        break;
+                }
+            }
+            writer.write("</testsuite>\n");
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
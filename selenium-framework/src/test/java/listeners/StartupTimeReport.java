@@ -0,0 +1,138 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time from JVM process start to the first test, appended per run to a CSV so
+ * runs with and without the AppCDS archive can be compared.
+ * Written by TestListener when the first test of the JVM starts.
+ *
+ * @author Brian LaTorraca
+ */
+public class StartupTimeReport {
+
+    private static final Logger log = LogManager.getLogger(StartupTimeReport.class);
+
+    private static final String HEADER = "timestamp,class_data_sharing,suite,time_to_first_test_ms";
+    private static final AtomicBoolean recorded = new AtomicBoolean();
+
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private StartupTimeReport() {}
+
+    /**
+     * Record time-to-first-test once per JVM and print it next to earlier runs
+     *
+     * @param suiteName Suite of the first test
+     * @param reportPath CSV file to append to
+     */
+    public static void recordFirstTest(String suiteName, String reportPath) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+
+        long startedAt = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElse(ManagementFactory.getRuntimeMXBean().getStartTime());
+        long elapsed = System.currentTimeMillis() - startedAt;
+        String mode = classDataSharingMode();
+
+        Path report = Paths.get(reportPath);
+        Map<String, List<Long>> previous = readPrevious(report);
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            String row = Instant.now() + "," + mode + "," + suiteName.replace(",", " ") + "," + elapsed;
+            List<String> lines = Files.exists(report)
+                    ? Collections.singletonList(row)
+                    : List.of(HEADER, row);
+            Files.write(report, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to write startup report " + report + ": " + e.getMessage());
+        }
+
+        StringBuilder summary = new StringBuilder("Time to first test: " + elapsed + " ms (" + mode + ")");
+        previous.forEach((previousMode, times) -> summary.append("; ").append(previousMode)
+                .append(" median ").append(median(times)).append(" ms over ").append(times.size()).append(" run(s)"));
+        log.info(summary);
+    }
+
+    /**
+     * Describe the class data sharing setup of this JVM from its arguments
+     *
+     * @return appcds, appcds-unmapped (archive missing or stale), appcds-unverified (no cds log),
+     *         appcds-train or default
+     */
+    static String classDataSharingMode() {
+        List<String> arguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        if (arguments.stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"))) {
+            // With -Xshare:auto the JVM silently runs without an archive it cannot map, and java.vm.info
+            // says "sharing" whenever the JDK's default archive is mapped; only the cds log tells whether
+            // the dynamic archive was mapped on top of it
+            Optional<Path> cdsLog = arguments.stream()
+                    .filter(argument -> argument.startsWith("-Xlog:cds") && argument.contains("file="))
+                    .map(argument -> Paths.get(argument.substring(argument.indexOf("file=") + 5).replace("\"", "")))
+                    .findFirst();
+            if (!cdsLog.isPresent()) {
+                return "appcds-unverified";
+            }
+            return isDynamicArchiveMapped(cdsLog.get()) ? "appcds" : "appcds-unmapped";
+        }
+        if (arguments.stream().anyMatch(argument -> argument.startsWith("-XX:ArchiveClassesAtExit"))) {
+            return "appcds-train";
+        }
+        return "default";
+    }
+
+    private static boolean isDynamicArchiveMapped(Path cdsLog) {
+        try {
+            return Files.readAllLines(cdsLog, StandardCharsets.UTF_8).stream()
+                    .anyMatch(line -> line.contains("Mapped dynamic region"));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, List<Long>> readPrevious(Path report) {
+        Map<String, List<Long>> times = new TreeMap<>();
+        if (!Files.exists(report)) {
+            return times;
+        }
+        try {
+            for (String line : Files.readAllLines(report, StandardCharsets.UTF_8)) {
+                String[] columns = line.split(",");
+                if (columns.length == 4 && !line.equals(HEADER)) {
+                    times.computeIfAbsent(columns[1], mode -> new ArrayList<>()).add(Long.parseLong(columns[3]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Failed to read startup report " + report + ": " + e.getMessage());
+        }
+        return times;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -1,55 +1,100 @@
 package listeners;
 
+import config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 import utils.DriverManager;
 import utils.ScreenshotUtils;
 
+import java.util.function.Consumer;
+
 /**
  * TestNG listener for enhanced test reporting and screenshot capture
  * Author: Brian LaTorraca
  */
 public class TestListener implements ITestListener {
 
+    private static final Logger log = LogManager.getLogger(TestListener.class);
+
     @Override
     public void onTestStart(ITestResult result) {
-        System.out.println("Starting test: " + result.getMethod().getMethodName());
+        StartupTimeReport.recordFirstTest(result.getTestContext().getSuite().getName(),
+                ConfigManager.getInstance().getStartupReportPath());
+        log.info("Starting test: " + result.getMethod().getMethodName());
+        journal(journal -> journal.testStarted(result));
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        System.out.println("Test passed: " + result.getMethod().getMethodName());
+        log.info("Test passed: " + result.getMethod().getMethodName());
+        journal(journal -> journal.testFinished(result));
+        history(result);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         String testName = result.getMethod().getMethodName();
-        System.out.println("Test failed: " + testName);
+        log.error("Test failed: " + testName);
+        journal(journal -> journal.testFinished(result));
+        history(result);
         
         // Capture screenshot on failure
         if (DriverManager.isDriverInitialized()) {
             String screenshotPath = ScreenshotUtils.takeScreenshot(DriverManager.getDriver(), testName + "_FAILED");
-            System.out.println("Screenshot captured: " + screenshotPath);
+            log.info("Screenshot captured: " + screenshotPath);
             
             // Set screenshot path in test result for reporting
-            System.setProperty("screenshot.path", screenshotPath);
+            if (screenshotPath != null) {
+                result.setAttribute(ExtentReportListener.SCREENSHOT_ATTRIBUTE, screenshotPath);
+            }
         }
         
         // Print failure details
         Throwable throwable = result.getThrowable();
         if (throwable != null) {
-            System.out.println("Failure reason: " + throwable.getMessage());
+            log.error("Failure reason: " + throwable.getMessage());
         }
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        System.out.println("Test skipped: " + result.getMethod().getMethodName());
+        log.info("Test skipped: " + result.getMethod().getMethodName());
+        journal(journal -> journal.testFinished(result));
+        history(result);
         
         // Print skip reason if available
         Throwable throwable = result.getThrowable();
         if (throwable != null) {
-            System.out.println("Skip reason: " + throwable.getMessage());
+            log.info("Skip reason: " + throwable.getMessage());
+        }
+    }
+
+    /**
+     * Append to the results journal unless journaling is disabled
+     */
+    private static void journal(Consumer<ResultsJournal> event) {
+        ResultsJournal journal = ResultsJournal.getInstance();
+        if (journal != null) {
+            event.accept(journal);
         }
     }
+
+    /**
+     * Record a finished test in the results history unless history is disabled
+     */
+    private static void history(ITestResult result) {
+        ResultsHistory history = ResultsHistory.getInstance();
+        if (history != null) {
+            history.record(result);
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        // Persist failed methods and data provider rows for the rerun-failed profile
+        FailedTestIndex.record(context, ConfigManager.getInstance().getRerunIndexPath());
+    }
 }
\ No newline at end of file
@@ -6,7 +6,6 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import pages.HomePage;
 import pages.LoginPage;
-import utils.DriverManager;
 import utils.ExcelUtils;
 
 import java.util.Map;
@@ -19,7 +18,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 1)
     public void testValidLogin() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Verify login page is loaded
         Assert.assertTrue(loginPage.isLoginPageLoaded(), "Login page is not loaded properly");
@@ -28,14 +27,14 @@ public class LoginTest extends BaseTest {
         loginPage.login("testuser@example.com", "password123");
         
         // Verify successful login
-        HomePage homePage = new HomePage(DriverManager.getDriver());
+        HomePage homePage = new HomePage(getContext());
         Assert.assertTrue(homePage.isHomePageLoaded(), "Home page is not loaded after login");
         Assert.assertTrue(homePage.isUserLoggedIn(), "User is not logged in successfully");
     }
 
     @Test(priority = 2)
     public void testInvalidLogin() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Attempt login with invalid credentials
         loginPage.login("invalid@example.com", "wrongpassword");
@@ -50,7 +49,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 3)
     public void testEmptyCredentials() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Click login without entering credentials
         loginPage.clickLoginButton();
@@ -61,7 +60,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 4)
     public void testEmptyUsername() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Enter only password
         loginPage.enterPassword("password123");
@@ -73,7 +72,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 5)
     public void testEmptyPassword() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Enter only username
         loginPage.enterUsername("testuser@example.com");
@@ -85,13 +84,13 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 6)
     public void testRememberMeFunctionality() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Login with Remember Me checked
         loginPage.loginWithRememberMe("testuser@example.com", "password123");
         
         // Verify successful login
-        HomePage homePage = new HomePage(DriverManager.getDriver());
+        HomePage homePage = new HomePage(getContext());
         Assert.assertTrue(homePage.isHomePageLoaded(), "Home page is not loaded");
         
         // Logout and verify remember me functionality
@@ -101,7 +100,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 7)
     public void testForgotPasswordLink() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Click forgot password link
         loginPage.clickForgotPassword();
@@ -112,7 +111,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 8)
     public void testLoginPageElements() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Verify all elements are present
         Assert.assertTrue(loginPage.isLoginPageLoaded(), "Login page elements are not loaded");
@@ -123,7 +122,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 9, dataProvider = "loginData")
     public void testDataDrivenLogin(Map<String, String> testData) {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         String username = testData.get("username");
         String password = testData.get("password");
@@ -133,7 +132,7 @@ public class LoginTest extends BaseTest {
         loginPage.login(username, password);
         
         if (expectedResult.equals("success")) {
-            HomePage homePage = new HomePage(DriverManager.getDriver());
+            HomePage homePage = new HomePage(getContext());
             Assert.assertTrue(homePage.isHomePageLoaded(), "Login should be successful for: " + username);
         } else {
             Assert.assertTrue(loginPage.isErrorMessageDisplayed(), "Error should be displayed for: " + username);
@@ -164,7 +163,7 @@ public class LoginTest extends BaseTest {
 
     @Test(priority = 10)
     public void testLoginFormClear() {
-        LoginPage loginPage = new LoginPage(DriverManager.getDriver());
+        LoginPage loginPage = new LoginPage(getContext());
         
         // Fill the form
         loginPage.enterUsername("testuser@example.com");
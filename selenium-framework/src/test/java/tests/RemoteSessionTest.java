@@ -0,0 +1,157 @@
+package tests;
+
+import config.ConfigManager;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.LocalGridLauncher;
+import utils.RemoteDriverFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remote execution against the in-process Selenium standalone: session creation, quit,
+ * retry while no slot is free and fail-fast on requests the grid rejects.
+ * Runs with mvn test -Premote-session (one slot, short queue timeout).
+ *
+ * @author Brian LaTorraca
+ */
+public class RemoteSessionTest {
+
+    // Grid checks its queue for timed-out requests on a period (--session-request-timeout-period, 10 s)
+    private static final long QUEUE_TIMEOUT_CHECK_MILLIS = 15_000;
+    private static final String QUEUE_QUERY = "{\"query\": \"{ sessionsInfo { sessionQueueRequests } }\"}";
+
+    private final ConfigManager config = ConfigManager.getInstance();
+
+    @BeforeClass
+    public void startLocalGrid() {
+        if (!config.isLocalGridEnabled()) {
+            throw new SkipException("Remote session checks need the local standalone (mvn test -Premote-session)");
+        }
+        String gridUrl = LocalGridLauncher.start(config.getLocalGridMaxSessions(),
+                config.getLocalGridSessionRequestTimeout(), config.getLocalGridStartupTimeout());
+        System.setProperty("grid.enabled", "true");
+        System.setProperty("grid.hub.url", gridUrl);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closeSharedClient() {
+        RemoteDriverFactory.shutdown();
+    }
+
+    @Test(description = "A remote session is created, usable and gone after quit")
+    public void testSessionCreateAndQuit() {
+        RemoteWebDriver driver = (RemoteWebDriver) RemoteDriverFactory.create(browserOptions());
+        try {
+            Assert.assertNotNull(driver.getSessionId(), "Remote session has no id");
+            driver.get("about:blank");
+            Assert.assertEquals(driver.getCurrentUrl(), "about:blank");
+        } finally {
+            driver.quit();
+        }
+        Assert.assertNull(driver.getSessionId(), "Session id still set after quit");
+    }
+
+    @Test(description = "A request that times out in the queue is retried and gets the slot once it is free")
+    public void testRetryOnQueueTimeout() throws Exception {
+        long queueTimeoutMillis = config.getLocalGridSessionRequestTimeout() * 1000L;
+        Assert.assertTrue(config.getGridSessionRetries() > 0, "grid.session.retries must allow a retry");
+
+        // Take every slot so the next request has to wait in the queue
+        int slots = config.getLocalGridMaxSessions();
+        WebDriver[] holders = new WebDriver[slots];
+        for (int i = 0; i < slots; i++) {
+            holders[i] = RemoteDriverFactory.create(browserOptions());
+        }
+
+        CompletableFuture<WebDriver> waiting = CompletableFuture.supplyAsync(
+                () -> RemoteDriverFactory.create(browserOptions()));
+        try {
+            // The grid drops the request from its queue when it times out; free the slots only then,
+            // while the factory is backing off before its next attempt
+            waitForQueue(true, queueTimeoutMillis);
+            waitForQueue(false, queueTimeoutMillis + QUEUE_TIMEOUT_CHECK_MILLIS);
+            Assert.assertFalse(waiting.isDone(), "Session request was not retried after the queue timeout");
+        } finally {
+            for (WebDriver holder : holders) {
+                holder.quit();
+            }
+        }
+
+        long retryWindowMillis = queueTimeoutMillis * (config.getGridSessionRetries() + 1);
+        WebDriver driver = waiting.get(retryWindowMillis, TimeUnit.MILLISECONDS);
+        driver.quit();
+    }
+
+    @Test(description = "A request no node supports fails without retries")
+    public void testUnsupportedCapabilitiesFailFast() {
+        MutableCapabilities unsupported = new MutableCapabilities();
+        unsupported.setCapability("browserName", "no-such-browser");
+
+        long start = System.currentTimeMillis();
+        Assert.assertThrows(SessionNotCreatedException.class, () -> RemoteDriverFactory.create(unsupported));
+        Assert.assertTrue(System.currentTimeMillis() - start < config.getGridSessionRetryBackoffMillis(),
+                "Rejected request was retried");
+    }
+
+    /**
+     * Poll the grid's session queue (GraphQL) until it has requests waiting, or until it is empty
+     */
+    private void waitForQueue(boolean queued, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (queuedRequests() > 0 != queued) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, "Session queue still "
+                    + (queued ? "empty" : "holding the request") + " after " + timeoutMillis + " ms");
+            Thread.sleep(100);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int queuedRequests() throws IOException {
+        String gridUrl = config.getGridHubUrl().replaceFirst("/wd/hub/?$", "");
+        HttpURLConnection connection = (HttpURLConnection) new URL(gridUrl + "/graphql").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try {
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(QUEUE_QUERY.getBytes(StandardCharsets.UTF_8));
+            }
+            try (InputStream input = connection.getInputStream()) {
+                Map<String, Object> response = new Json().toType(
+                        new String(input.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                Map<String, Object> data = (Map<String, Object>) response.get("data");
+                Map<String, Object> sessionsInfo = (Map<String, Object>) data.get("sessionsInfo");
+                return ((List<Object>) sessionsInfo.get("sessionQueueRequests")).size();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private ChromeOptions browserOptions() {
+        ChromeOptions options = new ChromeOptions();
+        if (config.isHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        return options;
+    }
+}
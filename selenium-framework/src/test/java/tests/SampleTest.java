@@ -1,6 +1,8 @@
 package tests;
 
 import base.BaseTest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import utils.DriverManager;
@@ -12,6 +14,8 @@ import utils.DriverManager;
  */
 public class SampleTest extends BaseTest {
     
+    private static final Logger log = LogManager.getLogger(SampleTest.class);
+    
     @Test(description = "Verify Google homepage loads successfully")
     public void testGoogleHomepage() {
         // Navigate to Google
@@ -25,7 +29,7 @@ public class SampleTest extends BaseTest {
         // Take a screenshot
         takeScreenshot("google_homepage");
         
-        System.out.println("Google homepage test completed successfully");
+        log.info("Google homepage test completed successfully");
     }
     
     @Test(description = "Verify page navigation works")
@@ -43,7 +47,7 @@ public class SampleTest extends BaseTest {
         Assert.assertTrue(pageSource.contains("Example Domain"), 
             "Page should contain 'Example Domain'");
         
-        System.out.println("Navigation test completed successfully");
+        log.info("Navigation test completed successfully");
     }
     
     @Test(description = "Demonstrate screenshot capture on failure", 